@@ -0,0 +1,54 @@
+package com.mauriexchange.code.benchmark;
+
+import com.mauriexchange.code.dto.CompareRatesResponseDto;
+import com.mauriexchange.code.dto.ConversionResponseDto;
+import com.mauriexchange.code.dto.CurrencyResponseDto;
+import com.mauriexchange.code.dto.HistoricalRatePointDto;
+import com.mauriexchange.code.dto.LatestRatesResponseDto;
+import com.mauriexchange.code.dto.PaginatedResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-level hot paths, measured without the web layer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CurrencyServiceBenchmark {
+
+    @Benchmark
+    public LatestRatesResponseDto getLatestRates(ServiceState state) {
+        return state.service.getLatestRates(0.01);
+    }
+
+    @Benchmark
+    public ConversionResponseDto convert(ServiceState state) {
+        return state.service.convert(state.code, state.otherCode, 100);
+    }
+
+    @Benchmark
+    public List<HistoricalRatePointDto> getHistoryByCodeAndRange(ServiceState state) {
+        return state.service.getHistoryByCodeAndRange(state.code, state.rangeStart, state.rangeEnd);
+    }
+
+    @Benchmark
+    public CompareRatesResponseDto compareRates(ServiceState state) {
+        return state.service.compareRates(state.code, state.rangeStart, state.rangeEnd);
+    }
+
+    @Benchmark
+    public Optional<CurrencyResponseDto> getCurrencyByCode(ServiceState state) {
+        return state.service.getCurrencyByCode(state.code);
+    }
+
+    @Benchmark
+    public PaginatedResponseDto<CurrencyResponseDto> getCurrenciesByNamePaginated(ServiceState state) {
+        return state.service.getCurrenciesByNamePaginated("synth", 0, 20);
+    }
+}
@@ -0,0 +1,66 @@
+package com.mauriexchange.code.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mauriexchange.code.dto.ApiResponseDto;
+import com.mauriexchange.code.dto.CurrencyResponseDto;
+import com.mauriexchange.code.dto.HistoricalRatePointDto;
+import com.mauriexchange.code.dto.LatestRatesResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the {@link ApiResponseDto} wrappers the controllers return,
+ * with an {@link ObjectMapper} configured the way Spring Boot configures its own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ApiResponseDto<LatestRatesResponseDto> latestRates;
+    private ApiResponseDto<List<HistoricalRatePointDto>> history;
+    private ApiResponseDto<CurrencyResponseDto> currency;
+    private ApiResponseDto<List<CurrencyResponseDto>> currencies;
+
+    @Setup(Level.Trial)
+    public void setUp(ServiceState state) {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        latestRates = ApiResponseDto.success(state.service.getLatestRates(0.01));
+        history = ApiResponseDto.success(
+                state.service.getHistoryByCodeAndRange(state.code, state.rangeStart, state.rangeEnd));
+        currency = ApiResponseDto.success(state.service.getCurrencyByCode(state.code).orElseThrow());
+        currencies = ApiResponseDto.success(state.service.getAllCurrencies());
+    }
+
+    @Benchmark
+    public byte[] latestRates() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(latestRates);
+    }
+
+    @Benchmark
+    public byte[] history() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(history);
+    }
+
+    @Benchmark
+    public byte[] currencyByCode() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(currency);
+    }
+
+    @Benchmark
+    public byte[] allCurrencies() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(currencies);
+    }
+}
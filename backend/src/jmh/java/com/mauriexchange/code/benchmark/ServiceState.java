@@ -0,0 +1,55 @@
+package com.mauriexchange.code.benchmark;
+
+import com.mauriexchange.code.config.DataSourceConfig;
+import com.mauriexchange.code.config.PaginationConfig;
+import com.mauriexchange.code.service.CurrencyService;
+import com.mauriexchange.code.service.impl.CurrencyServiceImpl;
+import com.mauriexchange.code.store.RatesSnapshotStore;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A {@link CurrencyService} wired by hand over a synthetic dataset of the given scale,
+ * plus request parameters that hit existing data.
+ */
+@State(Scope.Benchmark)
+public class ServiceState {
+
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    public CurrencyService service;
+    public String code;
+    public String otherCode;
+    public String rangeStart;
+    public String rangeEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        DataSourceConfig dataSourceConfig = new DataSourceConfig();
+        dataSourceConfig.setPath(SyntheticDatasetGenerator.forScale(scale).toString());
+        dataSourceConfig.setReloadEnabled(false);
+
+        RatesSnapshotStore store = new RatesSnapshotStore(dataSourceConfig, event -> { });
+        store.init();
+        service = new CurrencyServiceImpl(new PaginationConfig(), store);
+
+        int currencies = SyntheticDatasetGenerator.currencyCount(scale);
+        code = SyntheticDatasetGenerator.code(currencies / 2);
+        otherCode = SyntheticDatasetGenerator.code(currencies - 1);
+
+        // One year of history ending on the last published day
+        List<LocalDate> days = SyntheticDatasetGenerator.days(scale);
+        LocalDate end = days.get(days.size() - 1);
+        LocalDate start = end.minusWeeks(52);
+        rangeStart = (start.isBefore(days.get(0)) ? days.get(0) : start).toString();
+        rangeEnd = end.toString();
+    }
+}
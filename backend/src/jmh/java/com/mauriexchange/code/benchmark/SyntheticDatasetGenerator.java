@@ -0,0 +1,175 @@
+package com.mauriexchange.code.benchmark;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Writes a dataset in the BCM source shape ({@code data[].attributes.money_today_changes.data[]})
+ * with synthetic currencies and weekday rates.
+ *
+ * <p>A scale of 1 is roughly the size of the BCM feed. Larger scales grow the record count by the same
+ * factor, split evenly between the number of currencies and the history depth (100× gives 10× the
+ * currencies with 10× the history each). Output is deterministic for a given scale.</p>
+ *
+ * <p>Usage: {@code SyntheticDatasetGenerator <scale> <output.json>}</p>
+ */
+public final class SyntheticDatasetGenerator {
+
+    static final int BASE_CURRENCIES = 20;
+    static final int BASE_DAYS = 500;
+    static final LocalDate LAST_DAY = LocalDate.of(2025, 10, 17);
+
+    private static final String[][] KNOWN = {
+            {"USD", "Dollar américain", "الدولار الأمريكي"},
+            {"EUR", "Euro", "اليورو"},
+            {"GBP", "Livre sterling", "الجنيه الإسترليني"},
+            {"CHF", "Franc suisse", "الفرنك السويسري"},
+            {"CAD", "Dollar canadien", "الدولار الكندي"},
+            {"CNY", "Yuan chinois", "اليوان الصيني"},
+            {"JPY", "Yen japonais", "الين الياباني"},
+            {"SAR", "Riyal saoudien", "الريال السعودي"},
+            {"AED", "Dirham des Émirats", "الدرهم الإماراتي"},
+            {"MAD", "Dirham marocain", "الدرهم المغربي"},
+            {"DZD", "Dinar algérien", "الدينار الجزائري"},
+            {"TND", "Dinar tunisien", "الدينار التونسي"},
+            {"XOF", "Franc CFA", "فرنك غرب أفريقيا"},
+            {"KWD", "Dinar koweïtien", "الدينار الكويتي"},
+            {"QAR", "Riyal qatari", "الريال القطري"},
+            {"NOK", "Couronne norvégienne", "الكرونة النرويجية"},
+            {"SEK", "Couronne suédoise", "الكرونة السويدية"},
+            {"DKK", "Couronne danoise", "الكرونة الدنماركية"},
+            {"GMD", "Dalasi gambien", "الدالاسي الغامبي"},
+            {"GNF", "Franc guinéen", "الفرنك الغيني"},
+    };
+
+    private SyntheticDatasetGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: SyntheticDatasetGenerator <scale> <output.json>");
+            System.exit(1);
+        }
+        Path output = Paths.get(args[1]);
+        write(Integer.parseInt(args[0]), output);
+        System.out.println("Wrote " + output.toAbsolutePath() + " (" + Files.size(output) + " bytes)");
+    }
+
+    /**
+     * The dataset for the given scale, generated into {@code target/benchmark-data} on first use.
+     */
+    public static Path forScale(int scale) throws IOException {
+        Path path = Paths.get("target", "benchmark-data", "bcm-" + scale + "x.json");
+        if (!Files.exists(path)) {
+            Files.createDirectories(path.getParent());
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            write(scale, tmp);
+            Files.move(tmp, path);
+        }
+        return path;
+    }
+
+    static int currencyCount(int scale) {
+        return (int) Math.round(BASE_CURRENCIES * Math.sqrt(scale));
+    }
+
+    static List<LocalDate> days(int scale) {
+        int count = (int) Math.round(BASE_DAYS * Math.sqrt(scale));
+        List<LocalDate> days = new ArrayList<>(count);
+        for (LocalDate day = LAST_DAY; days.size() < count; day = day.minusDays(1)) {
+            if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                days.add(day);
+            }
+        }
+        Collections.reverse(days);
+        return days;
+    }
+
+    static String code(int index) {
+        if (index < KNOWN.length) {
+            return KNOWN[index][0];
+        }
+        int n = index - KNOWN.length;
+        return "X" + (char) ('A' + (n / 26) % 26) + (char) ('A' + n % 26) + (n >= 676 ? String.valueOf(n / 676) : "");
+    }
+
+    public static void write(int scale, Path output) throws IOException {
+        Random random = new Random(42L * scale);
+        List<LocalDate> days = days(scale);
+        int currencies = currencyCount(scale);
+        long rateId = 1;
+
+        try (JsonGenerator gen = new JsonFactory().createGenerator(output.toFile(), JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("data");
+            for (int c = 0; c < currencies; c++) {
+                String created = days.get(0) + "T00:00:00.000";
+                gen.writeStartObject();
+                gen.writeNumberField("id", c + 1);
+                gen.writeObjectFieldStart("attributes");
+                gen.writeStringField("name_fr", c < KNOWN.length ? KNOWN[c][1] : "Devise synthétique " + c);
+                gen.writeStringField("name_ar", c < KNOWN.length ? KNOWN[c][2] : "عملة اصطناعية " + c);
+                gen.writeNumberField("unity", 1);
+                gen.writeStringField("code", code(c));
+                gen.writeStringField("createdAt", created);
+                gen.writeStringField("updatedAt", created);
+                gen.writeStringField("publishedAt", created);
+                gen.writeObjectFieldStart("money_today_changes");
+                gen.writeArrayFieldStart("data");
+
+                // The feed is not ordered by day, so emit each history in a shuffled order
+                double[] values = randomWalk(random, days.size());
+                List<Integer> order = new ArrayList<>(days.size());
+                for (int i = 0; i < days.size(); i++) {
+                    order.add(i);
+                }
+                Collections.shuffle(order, random);
+                for (int i : order) {
+                    LocalDate day = days.get(i);
+                    String stamp = day + "T10:00:00.000";
+                    gen.writeStartObject();
+                    gen.writeNumberField("id", rateId++);
+                    gen.writeObjectFieldStart("attributes");
+                    gen.writeStringField("day", day.toString());
+                    gen.writeStringField("value", String.format(Locale.ROOT, "%.4f", values[i]));
+                    gen.writeStringField("createdAt", stamp);
+                    gen.writeStringField("updatedAt", stamp);
+                    gen.writeStringField("publishedAt", stamp);
+                    gen.writeStringField("end_date", day.plusDays(1).toString());
+                    gen.writeEndObject();
+                    gen.writeEndObject();
+                }
+
+                gen.writeEndArray();
+                gen.writeEndObject();
+                gen.writeEndObject();
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+    }
+
+    private static double[] randomWalk(Random random, int length) {
+        double[] values = new double[length];
+        double value = 0.1 + random.nextDouble() * 100;
+        for (int i = 0; i < length; i++) {
+            value = Math.max(0.0001, value * (1 + random.nextGaussian() * 0.005));
+            values[i] = value;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,94 @@
+package com.mauriexchange.code.benchmark;
+
+import com.mauriexchange.code.BackendApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end HTTP latency under high concurrency with Tomcat on platform threads versus
+ * virtual threads ({@code spring.threads.virtual.enabled}). SampleTime mode reports the
+ * p50/p90/p99/p99.9 latency per request; throughput follows from the sample count. The
+ * virtual mode needs a Java 21 runtime.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(400)
+@State(Scope.Benchmark)
+public class ThreadModeBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"10"})
+    public int scale;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest convert;
+    private HttpRequest history;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        boolean virtual = "virtual".equals(threads);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21, running on " + Runtime.version());
+        }
+
+        SpringApplication application = new SpringApplication(BackendApplication.class);
+        context = application.run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--app.data.source.path=" + SyntheticDatasetGenerator.forScale(scale),
+                "--app.data.source.reload-enabled=false",
+                "--logging.level.com.mauriexchange=WARN");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        int currencies = SyntheticDatasetGenerator.currencyCount(scale);
+        String code = SyntheticDatasetGenerator.code(currencies / 2);
+        List<LocalDate> days = SyntheticDatasetGenerator.days(scale);
+        LocalDate end = days.get(days.size() - 1);
+
+        String base = "http://localhost:" + port + "/api/v1";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        convert = HttpRequest.newBuilder(URI.create(base + "/convert?from=" + code + "&to=MRU&amount=100")).build();
+        // An open-ended range is not served from the response cache, so this exercises the full request path
+        history = HttpRequest.newBuilder(URI.create(base + "/history/" + code
+                + "?start=" + end.minusWeeks(52) + "&end=" + end.plusDays(1))).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int convert() throws IOException, InterruptedException {
+        return client.send(convert, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int history() throws IOException, InterruptedException {
+        return client.send(history, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
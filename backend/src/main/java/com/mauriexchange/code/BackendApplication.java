@@ -6,6 +6,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(exclude = {
     DataSourceAutoConfiguration.class,
@@ -13,6 +14,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
     // DetailedCurrencyController.class
 })
 @EnableConfigurationProperties
+@EnableScheduling
 public class BackendApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,20 @@
+package com.mauriexchange.code.cache;
+
+import java.util.Map;
+
+/**
+ * Serialized body of a successful read response together with its entity tag.
+ * @param snapshotVersion version of the dataset snapshot the body was produced from
+ * @param encoded precompressed variants of the body, only for codings that made it smaller
+ */
+public record CachedResponse(long snapshotVersion, String contentType, byte[] body, String etag,
+                             Map<ContentCoding, byte[]> encoded) {
+
+    /**
+     * Entity tag of the body sent with the given coding (null for identity). Each representation
+     * has its own strong tag, derived from the one of the identity body.
+     */
+    public String etag(ContentCoding coding) {
+        return coding == null ? etag : etag.substring(0, etag.length() - 1) + '-' + coding.token() + '"';
+    }
+}
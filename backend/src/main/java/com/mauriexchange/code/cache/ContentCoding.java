@@ -0,0 +1,80 @@
+package com.mauriexchange.code.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Content codings cached responses are precompressed with, in order of preference when a client
+ * accepts several of them with the same quality.
+ */
+public enum ContentCoding {
+
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Value of the Content-Encoding header.
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Compress a whole body.
+     * @param level Deflate level from 1 (fastest) to 9 (smallest)
+     */
+    public byte[] encode(byte[] body, int level) {
+        boolean gzip = this == GZIP;
+        // "deflate" is the zlib format, gzip wraps a raw deflate stream
+        Deflater deflater = new Deflater(level, gzip);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 32);
+            if (gzip) {
+                out.writeBytes(GZIP_HEADER);
+            }
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            if (gzip) {
+                CRC32 crc = new CRC32();
+                crc.update(body);
+                writeIntLE(out, (int) crc.getValue());
+                writeIntLE(out, body.length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Coding of a token from an Accept-Encoding header, or null if it is not one of ours.
+     */
+    static ContentCoding of(String token) {
+        for (ContentCoding coding : values()) {
+            if (coding.token.equalsIgnoreCase(token) || (coding == GZIP && "x-gzip".equalsIgnoreCase(token))) {
+                return coding;
+            }
+        }
+        return null;
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+}
@@ -0,0 +1,185 @@
+package com.mauriexchange.code.cache;
+
+import com.mauriexchange.code.config.ResponseCacheConfig;
+import com.mauriexchange.code.store.SnapshotPublishedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Serialized read responses keyed by request path and query. Entries are only valid for the
+ * snapshot version they were produced from and the whole cache is dropped when a new snapshot
+ * is published. Bodies are compressed once per key and snapshot: concurrent misses for the same key
+ * share the entry stored first and wait for its encoding instead of compressing again, and responses
+ * are then served in any accepted coding without encoding anything per request. When the cache is
+ * full, the least recently used entry makes room for the new one.
+ *
+ * <p>Entries live in a {@link Region} with its own limit, so a family of endpoints with many parameter
+ * combinations, like statistics, can only evict its own entries.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResponseCache {
+
+    private final ResponseCacheConfig responseCacheConfig;
+    private final Map<Region, Map<String, Entry>> regions = newRegions();
+
+    /**
+     * Group of entries evicted against its own limit.
+     */
+    public enum Region {
+        RESPONSES,
+        STATS
+    }
+
+    /**
+     * Cached response for the key, or null if there is none for the given snapshot version.
+     */
+    public CachedResponse get(String key, long snapshotVersion) {
+        return get(Region.RESPONSES, key, snapshotVersion);
+    }
+
+    /**
+     * Cached response for the key in a region, or null if there is none for the given snapshot version.
+     */
+    public CachedResponse get(Region region, String key, long snapshotVersion) {
+        Entry entry = regions.get(region).get(key);
+        if (entry == null || entry.snapshotVersion != snapshotVersion) {
+            return null;
+        }
+        entry.lastAccess = System.nanoTime();
+        return entry.response();
+    }
+
+    /**
+     * Store a serialized body, evicting the least recently used entry when the cache is full. If the key
+     * already holds a body of the same snapshot, that entry is kept and returned instead.
+     */
+    public CachedResponse put(String key, long snapshotVersion, String contentType, byte[] body) {
+        return put(Region.RESPONSES, key, snapshotVersion, contentType, body);
+    }
+
+    /**
+     * Store a serialized body in a region, evicting within that region only.
+     */
+    public CachedResponse put(Region region, String key, long snapshotVersion, String contentType, byte[] body) {
+        Map<String, Entry> entries = regions.get(region);
+        Entry fresh = new Entry(snapshotVersion, contentType, body);
+        Entry entry = entries.merge(key, fresh,
+                (existing, candidate) -> existing.snapshotVersion == snapshotVersion ? existing : candidate);
+        if (entry == fresh) {
+            int max = maxEntries(region);
+            while (entries.size() > max) {
+                evictLeastRecentlyUsed(entries);
+            }
+        }
+        // Encoded outside the map, by whichever caller gets there first
+        return entry.response();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, Entry> entries : regions.values()) {
+            size += entries.size();
+        }
+        return size;
+    }
+
+    public int size(Region region) {
+        return regions.get(region).size();
+    }
+
+    @EventListener
+    public void onSnapshotPublished(SnapshotPublishedEvent event) {
+        int size = size();
+        if (size > 0) {
+            log.debug("Dropping {} cached responses for snapshot v{}", size, event.snapshot().getVersion());
+            regions.values().forEach(Map::clear);
+        }
+    }
+
+    private int maxEntries(Region region) {
+        return region == Region.STATS ? responseCacheConfig.getStatsMaxEntries() : responseCacheConfig.getMaxEntries();
+    }
+
+    private static Map<Region, Map<String, Entry>> newRegions() {
+        Map<Region, Map<String, Entry>> regions = new EnumMap<>(Region.class);
+        for (Region region : Region.values()) {
+            regions.put(region, new ConcurrentHashMap<>());
+        }
+        return regions;
+    }
+
+    private static void evictLeastRecentlyUsed(Map<String, Entry> entries) {
+        // A scan is fine at this size, and keeps reads free of any shared ordering structure
+        String oldestKey = null;
+        long oldest = Long.MAX_VALUE;
+        for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+            long lastAccess = candidate.getValue().lastAccess;
+            if (oldestKey == null || lastAccess - oldest < 0) {
+                oldestKey = candidate.getKey();
+                oldest = lastAccess;
+            }
+        }
+        if (oldestKey != null) {
+            entries.remove(oldestKey);
+        }
+    }
+
+    private Map<ContentCoding, byte[]> encode(byte[] body) {
+        if (!responseCacheConfig.isCompressionEnabled() || body.length < responseCacheConfig.getCompressionMinSize()) {
+            return Map.of();
+        }
+        Map<ContentCoding, byte[]> encoded = new EnumMap<>(ContentCoding.class);
+        for (ContentCoding coding : ContentCoding.values()) {
+            byte[] compressed = coding.encode(body, responseCacheConfig.getCompressionLevel());
+            if (compressed.length < body.length) {
+                encoded.put(coding, compressed);
+            }
+        }
+        return Collections.unmodifiableMap(encoded);
+    }
+
+    private static String etag(long snapshotVersion, byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return "\"" + snapshotVersion + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    private final class Entry {
+        final long snapshotVersion;
+        final String contentType;
+        final byte[] body;
+        volatile long lastAccess = System.nanoTime();
+        private volatile CachedResponse response;
+
+        Entry(long snapshotVersion, String contentType, byte[] body) {
+            this.snapshotVersion = snapshotVersion;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        CachedResponse response() {
+            CachedResponse cached = response;
+            if (cached == null) {
+                synchronized (this) {
+                    cached = response;
+                    if (cached == null) {
+                        cached = new CachedResponse(snapshotVersion, contentType, body, etag(snapshotVersion, body),
+                                encode(body));
+                        response = cached;
+                    }
+                }
+            }
+            return cached;
+        }
+    }
+}
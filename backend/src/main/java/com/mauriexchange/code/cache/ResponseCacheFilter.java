@@ -0,0 +1,204 @@
+package com.mauriexchange.code.cache;
+
+import com.mauriexchange.code.config.BinaryFormatsConfig;
+import com.mauriexchange.code.config.ResponseCacheConfig;
+import com.mauriexchange.code.store.RatesSnapshotStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * Serves the read endpoints whose payload only changes with the dataset from pre-serialized bytes.
+ * Every cached response carries an ETag derived from the snapshot version, and a matching
+ * If-None-Match is answered with 304 without touching the controller or the serializer. Bodies are
+ * written in the best coding the client accepts among the precompressed variants of the entry.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final String CURRENCIES = "/api/v1/currencies";
+    private static final String CURRENCY_BY_CODE = "/api/v1/currencies/code/";
+    private static final String LATEST = "/api/v1/exchange-rates/latest";
+    private static final String HISTORY = "/api/v1/exchange-rates/history";
+    private static final String STATS = "/api/v1/exchange-rates/stats/";
+
+    private final ResponseCache responseCache;
+    private final ResponseCacheConfig responseCacheConfig;
+    private final RatesSnapshotStore snapshotStore;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !responseCacheConfig.isEnabled()
+                || !"GET".equals(request.getMethod())
+                || !isCacheable(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = cacheKey(request);
+        ResponseCache.Region region = region(request);
+        long version = snapshotStore.current().getVersion();
+
+        CachedResponse cached = responseCache.get(region, key, version);
+        if (cached != null) {
+            write(request, response, cached);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+
+        // Only keep bodies that were certainly produced from the snapshot the version refers to
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && snapshotStore.current().getVersion() == version) {
+            cached = responseCache.put(region, key, version, wrapper.getContentType(),
+                    wrapper.getContentAsByteArray());
+            write(request, response, cached);
+            return;
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    static boolean isCacheable(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path.equals(CURRENCIES) || path.equals(LATEST)) {
+            return true;
+        }
+        if (path.startsWith(STATS)) {
+            // Computed from the snapshot alone, so any range stays valid until the next one is published
+            return path.indexOf('/', STATS.length()) < 0;
+        }
+        if (path.startsWith(CURRENCY_BY_CODE)) {
+            return path.indexOf('/', CURRENCY_BY_CODE.length()) < 0;
+        }
+        if (path.equals(HISTORY) || path.startsWith(HISTORY + '/')) {
+            // Only closed ranges: an open range still gains rows as new days are published
+            String end = request.getParameter("end");
+            try {
+                return end != null && LocalDate.parse(end).isBefore(LocalDate.now());
+            } catch (DateTimeParseException ex) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Statistics accept any range and window, so they are kept apart from the few hot responses.
+     */
+    private static ResponseCache.Region region(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(STATS) ? ResponseCache.Region.STATS : ResponseCache.Region.RESPONSES;
+    }
+
+    private static String cacheKey(HttpServletRequest request) {
+        String query = request.getQueryString();
+        String key = query == null ? request.getRequestURI() : request.getRequestURI() + '?' + query;
+        // Binary clients get another representation; every JSON client shares one entry
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return BinaryFormatsConfig.acceptsBinary(accept) ? key + '\n' + accept : key;
+    }
+
+    private static void write(HttpServletRequest request, HttpServletResponse response, CachedResponse cached)
+            throws IOException {
+        ContentCoding coding = negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING), cached);
+        response.setHeader(HttpHeaders.ETAG, cached.etag(coding));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        byte[] body = coding == null ? cached.body() : cached.encoded().get(coding);
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        if (coding != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, coding.token());
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Coding with the highest quality in Accept-Encoding among the variants of the response, or null to
+     * send the identity body. Ties go to the preferred coding; identity is sent when nothing else fits,
+     * even if the client ruled it out.
+     */
+    static ContentCoding negotiate(String acceptEncoding, CachedResponse cached) {
+        if (acceptEncoding == null || cached.encoded().isEmpty()) {
+            return null;
+        }
+        ContentCoding best = null;
+        float bestQuality = 0;
+        float wildcardQuality = -1;
+        float[] qualities = new float[ContentCoding.values().length];
+        Arrays.fill(qualities, -1);
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String token = parts[0].trim();
+            float quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        quality = Float.parseFloat(param.substring(2));
+                    } catch (NumberFormatException ex) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (token.equals("*")) {
+                wildcardQuality = quality;
+            } else {
+                ContentCoding coding = ContentCoding.of(token);
+                if (coding != null) {
+                    qualities[coding.ordinal()] = quality;
+                }
+            }
+        }
+        for (ContentCoding coding : ContentCoding.values()) {
+            float quality = qualities[coding.ordinal()] >= 0 ? qualities[coding.ordinal()] : wildcardQuality;
+            if (quality > bestQuality && cached.encoded().containsKey(coding)) {
+                best = coding;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Whether If-None-Match holds the tag of any representation of the response: the content is the
+     * same whichever coding the client validated it with.
+     */
+    private static boolean matches(String ifNoneMatch, CachedResponse cached) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(cached.etag())) {
+                return true;
+            }
+            for (ContentCoding coding : cached.encoded().keySet()) {
+                if (tag.equals(cached.etag(coding))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
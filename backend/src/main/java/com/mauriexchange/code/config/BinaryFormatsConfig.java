@@ -0,0 +1,43 @@
+package com.mauriexchange.code.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * CBOR and Smile message converters, chosen with the Accept header. They are built from the application's
+ * Jackson configuration, so payloads carry the same fields and formats as JSON. JSON stays first in the
+ * converter list and is what clients get unless they ask for a binary type.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    public static final String CBOR_VALUE = MediaType.APPLICATION_CBOR_VALUE;
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Whether an Accept header explicitly asks for one of the binary types.
+     */
+    public static boolean acceptsBinary(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        String lower = accept.toLowerCase();
+        return lower.contains(CBOR_VALUE) || lower.contains(SMILE_VALUE);
+    }
+}
@@ -0,0 +1,31 @@
+package com.mauriexchange.code.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.data.source")
+public class DataSourceConfig {
+
+    private String path;
+    private boolean reloadEnabled = true;
+    private long reloadIntervalMs = 30000;
+    private boolean retainAuditFields = true;
+    private boolean binarySnapshotEnabled = true;
+    // Defaults to the source path with a ".snapshot" suffix
+    private String binarySnapshotPath;
+
+    private boolean deltaEnabled = true;
+    // Defaults to the source path with a ".delta.json" suffix
+    private String deltaPath;
+
+    public String resolveBinarySnapshotPath() {
+        return binarySnapshotPath != null && !binarySnapshotPath.isBlank() ? binarySnapshotPath : path + ".snapshot";
+    }
+
+    public String resolveDeltaPath() {
+        return deltaPath != null && !deltaPath.isBlank() ? deltaPath : path + ".delta.json";
+    }
+}
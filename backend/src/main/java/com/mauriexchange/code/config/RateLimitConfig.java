@@ -0,0 +1,26 @@
+package com.mauriexchange.code.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitConfig {
+
+    private boolean enabled = true;
+    private int capacity = 200; // Burst: tokens a client can spend at once
+    private double refillPerSecond = 50;
+    private String apiKeyHeader = "X-API-Key"; // Clients without a known key are limited per remote address
+    private Set<String> apiKeys = new HashSet<>(); // Keys given their own bucket
+    private int maxClients = 100000; // Tracked clients; further ones share striped buckets
+    private int overflowStripes = 1024;
+    private long sweepIntervalMs = 60000;
+    private Map<String, Integer> costs = new LinkedHashMap<>(); // Tokens per request by path prefix, 1 otherwise
+}
@@ -0,0 +1,17 @@
+package com.mauriexchange.code.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rates-stream")
+public class RatesStreamConfig {
+
+    private long heartbeatIntervalMs = 15000;
+    private int maxSubscribers = 10000;
+    private int replayDepth = 16;
+    private int sendThreads = 4; // Threads writing events out to subscribers
+    private int maxPendingEvents = 32; // Events queued for a subscriber before it is dropped as stalled
+}
@@ -0,0 +1,18 @@
+package com.mauriexchange.code.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.response-cache")
+public class ResponseCacheConfig {
+
+    private boolean enabled = true;
+    private int maxEntries = 1000;
+    private int statsMaxEntries = 200; // Statistics are cached apart and only evict each other
+    private boolean compressionEnabled = true;
+    private int compressionMinSize = 1024; // Bytes; smaller bodies are only served uncompressed
+    private int compressionLevel = 6; // Deflate level, 1 (fastest) to 9 (smallest)
+}
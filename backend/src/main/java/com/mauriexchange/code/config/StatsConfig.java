@@ -0,0 +1,14 @@
+package com.mauriexchange.code.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.stats")
+public class StatsConfig {
+
+    private int defaultWindow = 20; // Rows per rolling window when the request does not set one
+    private int maxWindow = 365;
+}
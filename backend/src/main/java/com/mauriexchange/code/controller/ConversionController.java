@@ -1,24 +1,43 @@
 package com.mauriexchange.code.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mauriexchange.code.dto.ApiResponseDto;
+import com.mauriexchange.code.dto.BatchConversionResultDto;
+import com.mauriexchange.code.dto.ConversionRequestDto;
 import com.mauriexchange.code.dto.ConversionResponseDto;
 import com.mauriexchange.code.exception.BadRequestException;
+import com.mauriexchange.code.exception.DataNotFoundException;
+import com.mauriexchange.code.service.ConversionBatch;
 import com.mauriexchange.code.service.CurrencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/v1")
@@ -27,6 +46,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class ConversionController {
 
     private final CurrencyService currencyService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/convert")
     @Operation(
@@ -59,5 +79,91 @@ public class ConversionController {
         ConversionResponseDto result = currencyService.convert(from, to, amount);
         return ResponseEntity.ok(ApiResponseDto.success(result));
     }
+
+    @PostMapping(value = "/convert/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, StreamingJson.NDJSON_VALUE})
+    @Operation(
+            summary = "Convert many amounts in one request",
+            description = "Accepts a JSON array or an NDJSON stream of {from, to, amount, date?} items and streams " +
+                    "one result per item back in request order, in the same format. All items are priced against " +
+                    "the same dataset snapshot; an invalid item is reported in its result without failing the batch."
+    )
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(content = {
+            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = ConversionRequestDto.class))),
+            @Content(mediaType = StreamingJson.NDJSON_VALUE, schema = @Schema(implementation = ConversionRequestDto.class))
+    })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed; see each result for its outcome",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = BatchConversionResultDto.class)))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public void convertBatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean ndjson = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(StreamingJson.NDJSON);
+        ConversionBatch batch = currencyService.openConversionBatch();
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(StreamingJson.contentType(ndjson).toString());
+
+        int count = 0;
+        try (MappingIterator<ConversionRequestDto> items = objectMapper.readerFor(ConversionRequestDto.class)
+                     .readValues(request.getInputStream());
+             JsonGenerator out = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            if (ndjson) {
+                out.setRootValueSeparator(new SerializedString("\n"));
+            } else {
+                out.writeStartObject();
+                out.writeBooleanField("success", true);
+                out.writeStringField("message", "Success");
+                out.writeArrayFieldStart("data");
+            }
+
+            try {
+                while (items.hasNextValue()) {
+                    BatchConversionResultDto result;
+                    try {
+                        result = convertItem(batch, count, items.nextValue());
+                    } catch (JsonMappingException e) {
+                        // well-formed but not an item; the iterator skips past it on the next call
+                        result = failure(count, "Invalid item: " + e.getOriginalMessage());
+                    }
+                    out.writeObject(result);
+                    count++;
+                }
+            } catch (JsonParseException e) {
+                // the body is not well-formed past this point, so there is nothing left to read
+                out.writeObject(failure(count++, "Malformed request body: " + e.getOriginalMessage()));
+            }
+
+            if (ndjson) {
+                out.writeRaw('\n');
+            } else {
+                out.writeEndArray();
+                out.writeObjectField("timestamp", LocalDateTime.now());
+                out.writeEndObject();
+            }
+        }
+        log.info("Converted batch of {} items", count);
+    }
+
+    private static BatchConversionResultDto convertItem(ConversionBatch batch, int index, ConversionRequestDto item) {
+        try {
+            if (item == null || item.getFrom() == null || item.getFrom().isBlank()
+                    || item.getTo() == null || item.getTo().isBlank()) {
+                throw new BadRequestException("'from' and 'to' parameters are required");
+            }
+            if (item.getAmount() == null || item.getAmount() < 0) {
+                throw new BadRequestException("'amount' must be a non-negative number");
+            }
+            ConversionResponseDto data = batch.convert(item.getFrom(), item.getTo(), item.getAmount(), item.getDate());
+            return BatchConversionResultDto.builder().index(index).success(true).data(data).build();
+        } catch (BadRequestException | DataNotFoundException e) {
+            return failure(index, e.getMessage());
+        }
+    }
+
+    private static BatchConversionResultDto failure(int index, String error) {
+        return BatchConversionResultDto.builder().index(index).success(false).error(error).build();
+    }
 }
 
@@ -6,7 +6,9 @@ import com.mauriexchange.code.dto.CurrencyResponseDto;
 import com.mauriexchange.code.dto.CurrencyListItemDto;
 import com.mauriexchange.code.dto.PaginatedResponseDto;
 import com.mauriexchange.code.exception.DataNotFoundException;
+import com.mauriexchange.code.service.CurrencyProjection;
 import com.mauriexchange.code.service.CurrencyService;
+import com.mauriexchange.code.service.CurrencyView;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -56,22 +58,72 @@ public class CurrencyController {
         return ResponseEntity.ok(ApiResponseDto.success(items));
     }
 
+    @GetMapping("/paginated")
+    @Operation(
+        summary = "Get all currencies with pagination",
+        description = "Retrieve currencies with pagination support. Page numbers are 0-based; a page past the end is empty. "
+                + "With 'after' (the nextCursor of the previous page) pages follow code order and stay consistent across dataset reloads."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved currencies",
+                    content = @Content(schema = @Schema(implementation = ApiResponseDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+        @ApiResponse(responseCode = "404", description = "No currency data available"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponseDto<PaginatedResponseDto<CurrencyResponseDto>>> getAllCurrenciesPaginated(
+            @Parameter(description = "Page number (0-based)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size", example = "10")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Cursor from the previous page's nextCursor; empty to start cursor mode")
+            @RequestParam(required = false) String after) {
+        log.info("Fetching currencies with pagination - page: {}, size: {}, after: {}", page, size, after);
+
+        // Use default page size from configuration if not specified
+        int pageSize = size > 0 ? size : paginationConfig.getDefaultPageSize();
+
+        PaginatedResponseDto<CurrencyResponseDto> paginatedResponse = after != null
+                ? currencyService.getAllCurrenciesAfter(pageSize, after)
+                : currencyService.getAllCurrenciesPaginated(page, pageSize);
+
+        return ResponseEntity.ok(ApiResponseDto.success(paginatedResponse,
+                "Successfully retrieved currencies with pagination"));
+    }
+
     @GetMapping("/code/{code}")
     @Operation(
         summary = "Get currency by code",
-        description = "Retrieve a specific currency by its ISO code (e.g., USD, EUR, NOK)"
+        description = "Retrieve a specific currency by its ISO code (e.g., USD, EUR, NOK). "
+                + "'fields' and 'includeRates' restrict the response to the requested parts."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved currency",
                     content = @Content(schema = @Schema(implementation = ApiResponseDto.class))),
+        @ApiResponse(responseCode = "400", description = "Unknown field or invalid includeRates"),
         @ApiResponse(responseCode = "404", description = "Currency not found"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<ApiResponseDto<CurrencyResponseDto>> getCurrencyByCode(
+    public ResponseEntity<ApiResponseDto<?>> getCurrencyByCode(
             @Parameter(description = "Currency code", example = "NOK")
-            @PathVariable String code) {
+            @PathVariable String code,
+            @Parameter(description = "Comma separated fields to return; rate fields as exchangeRates.<field>", example = "code,nameFr,exchangeRates.day,exchangeRates.value")
+            @RequestParam(required = false) String fields,
+            @Parameter(description = "Embedded history: all, none, latest, a number of latest rates, or range (with start and end)", example = "latest")
+            @RequestParam(required = false) String includeRates,
+            @Parameter(description = "First day of includeRates=range (YYYY-MM-DD)", example = "2025-01-01")
+            @RequestParam(required = false) String start,
+            @Parameter(description = "Last day of includeRates=range (YYYY-MM-DD)", example = "2025-10-17")
+            @RequestParam(required = false) String end) {
         log.info("Fetching currency with code: {}", code);
         
+        if (fields != null || includeRates != null) {
+            CurrencyProjection projection = CurrencyProjection.parse(fields, includeRates, start, end);
+            CurrencyView view = currencyService.getCurrencyByCode(code, projection)
+                    .orElseThrow(() -> new DataNotFoundException("Currency not found with code: " + code));
+            return ResponseEntity.ok(ApiResponseDto.success(view, "Successfully retrieved currency"));
+        }
+        
         Optional<CurrencyResponseDto> currency = currencyService.getCurrencyByCode(code);
         if (currency.isEmpty()) {
             throw new DataNotFoundException("Currency not found with code: " + code);
@@ -80,4 +132,77 @@ public class CurrencyController {
         return ResponseEntity.ok(ApiResponseDto.success(currency.get(), 
                 "Successfully retrieved currency"));
     }
+
+    @GetMapping("/search")
+    @Operation(
+        summary = "Search currencies by name",
+        description = "Search for currencies whose French or Arabic name contains the given text, ignoring case, accents and Arabic spelling variants"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved currencies",
+                    content = @Content(schema = @Schema(implementation = ApiResponseDto.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponseDto<List<CurrencyResponseDto>>> searchCurrenciesByName(
+            @Parameter(description = "Name to search for", example = "norvegienne")
+            @RequestParam String name) {
+        log.info("Searching currencies with name: {}", name);
+
+        List<CurrencyResponseDto> currencies = currencyService.getCurrenciesByName(name);
+        return ResponseEntity.ok(ApiResponseDto.success(currencies,
+                "Found " + currencies.size() + " currencies matching '" + name + "'"));
+    }
+
+    @GetMapping("/search/paginated")
+    @Operation(
+        summary = "Search currencies by name with pagination",
+        description = "Search for currencies by their French or Arabic name with pagination support"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved currencies",
+                    content = @Content(schema = @Schema(implementation = ApiResponseDto.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponseDto<PaginatedResponseDto<CurrencyResponseDto>>> searchCurrenciesByNamePaginated(
+            @Parameter(description = "Name to search for", example = "norvegienne")
+            @RequestParam String name,
+            @Parameter(description = "Page number (0-based)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size", example = "10")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Cursor from the previous page's nextCursor; empty to start cursor mode")
+            @RequestParam(required = false) String after) {
+        log.info("Searching currencies with name: {} - page: {}, size: {}, after: {}", name, page, size, after);
+
+        // Use default page size from configuration if not specified
+        int pageSize = size > 0 ? size : paginationConfig.getDefaultPageSize();
+
+        PaginatedResponseDto<CurrencyResponseDto> paginatedResponse = after != null
+                ? currencyService.getCurrenciesByNameAfter(name, pageSize, after)
+                : currencyService.getCurrenciesByNamePaginated(name, page, pageSize);
+
+        return ResponseEntity.ok(ApiResponseDto.success(paginatedResponse,
+                "Found currencies matching '" + name + "' with pagination"));
+    }
+
+    @GetMapping("/search/suggest")
+    @Operation(
+        summary = "Typeahead currency suggestions",
+        description = "Currencies whose code, name or any word of their French or Arabic name starts with the query. Exact codes rank first, then code prefixes, then names."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved suggestions",
+                    content = @Content(schema = @Schema(implementation = ApiResponseDto.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponseDto<List<CurrencyListItemDto>>> suggestCurrencies(
+            @Parameter(description = "Typed prefix", example = "dol")
+            @RequestParam String q,
+            @Parameter(description = "Maximum number of suggestions", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        log.debug("Suggesting currencies for: {}", q);
+
+        int validatedLimit = Math.min(Math.max(limit, 1), paginationConfig.getMaxPageSize());
+        return ResponseEntity.ok(ApiResponseDto.success(currencyService.suggestCurrencies(q, validatedLimit)));
+    }
 }
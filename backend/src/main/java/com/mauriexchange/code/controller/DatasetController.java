@@ -0,0 +1,63 @@
+package com.mauriexchange.code.controller;
+
+import com.mauriexchange.code.dto.ApiResponseDto;
+import com.mauriexchange.code.dto.DatasetStatusDto;
+import com.mauriexchange.code.store.RatesSnapshot;
+import com.mauriexchange.code.store.RatesSnapshotStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/dataset")
+@RequiredArgsConstructor
+@Tag(name = "Dataset API", description = "API for inspecting the currently served dataset snapshot")
+public class DatasetController {
+
+    private final RatesSnapshotStore snapshotStore;
+
+    @GetMapping("/status")
+    @Operation(
+            summary = "Get dataset snapshot status",
+            description = "Returns the version, load duration and size of the dataset snapshot currently served"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved dataset status",
+                    content = @Content(schema = @Schema(implementation = ApiResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "No currency data available"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponseDto<DatasetStatusDto>> getStatus() {
+        RatesSnapshot snapshot = snapshotStore.current();
+        DatasetStatusDto status = DatasetStatusDto.builder()
+                .version(snapshot.getVersion())
+                .loadedAt(toLocal(snapshot.getLoadedAt()))
+                .loadDurationMs(snapshot.getLoadDuration().toMillis())
+                .currencies(snapshot.currencies().size())
+                .records(snapshot.getRecordCount())
+                .sourceLastModified(snapshot.getSourceStamp() != null
+                        ? toLocal(Instant.ofEpochMilli(snapshot.getSourceStamp().lastModifiedMillis())) : null)
+                .sourceSize(snapshot.getSourceStamp() != null ? snapshot.getSourceStamp().size() : 0)
+                .lastReloadError(snapshotStore.getLastFailure())
+                .build();
+        return ResponseEntity.ok(ApiResponseDto.success(status));
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
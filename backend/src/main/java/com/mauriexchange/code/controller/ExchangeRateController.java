@@ -1,15 +1,23 @@
 package com.mauriexchange.code.controller;
 
+import com.mauriexchange.code.dto.AlignedHistoryDto;
 import com.mauriexchange.code.dto.ApiResponseDto;
 import com.mauriexchange.code.dto.OfficialRateResponseDto;
 import com.mauriexchange.code.dto.LatestRatesResponseDto;
+import com.mauriexchange.code.config.BinaryFormatsConfig;
 import com.mauriexchange.code.config.RatesConfig;
+import com.mauriexchange.code.config.StatsConfig;
 import com.mauriexchange.code.dto.ConversionResponseDto;
 import com.mauriexchange.code.dto.HistoricalRatePointDto;
+import com.mauriexchange.code.dto.HistorySeriesDto;
 import com.mauriexchange.code.dto.CompareRatesResponseDto;
+import com.mauriexchange.code.dto.RateBucketDto;
+import com.mauriexchange.code.dto.RateStatsDto;
 import com.mauriexchange.code.exception.BadRequestException;
 import com.mauriexchange.code.exception.DataNotFoundException;
+import com.mauriexchange.code.push.LatestRatesBroadcaster;
 import com.mauriexchange.code.service.CurrencyService;
+import com.mauriexchange.code.store.RollupInterval;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,12 +27,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -41,11 +52,14 @@ public class ExchangeRateController {
 
     private final CurrencyService currencyService;
     private final RatesConfig ratesConfig;
+    private final StatsConfig statsConfig;
+    private final LatestRatesBroadcaster latestRatesBroadcaster;
 
     @GetMapping("/{code}")
     @Operation(
             summary = "Get official rate by date",
-            description = "Fetch official rate for a currency code at a specific date (YYYY-MM-DD)"
+            description = "Fetch official rate for a currency code at a specific date (YYYY-MM-DD). With asOf=true, " +
+                    "returns the latest rate published on or before the date; effectiveDate tells which day it is from."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved official rate",
@@ -58,8 +72,10 @@ public class ExchangeRateController {
             @Parameter(description = "Currency code", example = "USD")
             @PathVariable String code,
             @Parameter(description = "Date (YYYY-MM-DD)", example = "2025-10-18")
-            @RequestParam String date) {
-        log.info("Fetching official rate for code: {} at date: {}", code, date);
+            @RequestParam String date,
+            @Parameter(description = "Use the latest rate on or before the date when none was published that day")
+            @RequestParam(defaultValue = "false") boolean asOf) {
+        log.info("Fetching official rate for code: {} at date: {} (asOf={})", code, date, asOf);
 
         // Validate date format
         try {
@@ -68,7 +84,7 @@ public class ExchangeRateController {
             throw new BadRequestException("Invalid date format. Expected YYYY-MM-DD");
         }
 
-        Optional<OfficialRateResponseDto> result = currencyService.getOfficialRateByCodeAndDate(code, date);
+        Optional<OfficialRateResponseDto> result = currencyService.getOfficialRateByCodeAndDate(code, date, asOf);
         if (result.isEmpty()) {
             throw new DataNotFoundException("Official rate not found for code: " + code + " at date: " + date);
         }
@@ -93,6 +109,54 @@ public class ExchangeRateController {
         return ResponseEntity.ok(ApiResponseDto.success(payload));
     }
 
+    @GetMapping(value = "/latest/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Subscribe to latest rates",
+            description = "Server-Sent Events stream of the latest rates. A 'snapshot' event carries the full payload, " +
+                    "then a 'diff' event (changed items and removed codes) follows each new dataset publication. " +
+                    "Event ids are <epoch>-<dataset version>: reconnect with Last-Event-ID to receive only the missed diffs."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "503", description = "Too many subscribers"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public SseEmitter streamLatestRates(
+            @Parameter(description = "Id of the last event received, sent by reconnecting clients")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return latestRatesBroadcaster.subscribe(lastEventId);
+    }
+
+    @GetMapping("/history")
+    @Operation(
+            summary = "Get aligned history of several currencies",
+            description = "Returns official rates of the given currencies within the inclusive date range on one shared, " +
+                    "ascending date axis: one value column per currency, null on days it has no rate"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved historical rates",
+                    content = @Content(schema = @Schema(implementation = ApiResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Missing codes or invalid date range"),
+            @ApiResponse(responseCode = "404", description = "One of the currencies not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponseDto<AlignedHistoryDto>> getAlignedHistory(
+            @Parameter(description = "Comma separated currency codes", example = "USD,EUR,CNY")
+            @RequestParam List<String> codes,
+            @Parameter(description = "Start date (YYYY-MM-DD)", example = "2025-09-01")
+            @RequestParam String start,
+            @Parameter(description = "End date (YYYY-MM-DD)", example = "2025-10-18")
+            @RequestParam String end) {
+        List<String> requested = codes.stream().map(String::trim).filter(code -> !code.isEmpty()).toList();
+        if (requested.isEmpty()) {
+            throw new BadRequestException("'codes' must list at least one currency code");
+        }
+        validateRange(start, end);
+
+        AlignedHistoryDto history = currencyService.getAlignedHistoryByCodesAndRange(requested, start, end);
+        return ResponseEntity.ok(ApiResponseDto.success(history));
+    }
+
     @GetMapping("/history/{code}")
     @Operation(
             summary = "Get historical rates by date range",
@@ -112,27 +176,109 @@ public class ExchangeRateController {
             @RequestParam String start,
             @Parameter(description = "End date (YYYY-MM-DD)", example = "2025-10-18")
             @RequestParam String end) {
-        // Validate dates
-        LocalDate startDate;
-        LocalDate endDate;
-        try {
-            startDate = LocalDate.parse(start, DateTimeFormatter.ISO_LOCAL_DATE);
-            endDate = LocalDate.parse(end, DateTimeFormatter.ISO_LOCAL_DATE);
-        } catch (DateTimeParseException ex) {
-            throw new BadRequestException("Invalid date format. Expected YYYY-MM-DD");
-        }
-        if (endDate.isBefore(startDate)) {
-            throw new BadRequestException("'end' date must be on or after 'start' date");
-        }
+        validateRange(start, end);
 
         List<HistoricalRatePointDto> points = currencyService.getHistoryByCodeAndRange(code, start, end);
         return ResponseEntity.ok(ApiResponseDto.success(points));
     }
 
+    @GetMapping(value = "/history/{code}", produces = {BinaryFormatsConfig.CBOR_VALUE, BinaryFormatsConfig.SMILE_VALUE})
+    @Operation(
+            summary = "Get historical rates as packed columns",
+            description = "Binary (CBOR or Smile) variant of the history for high-volume clients: the same rates as " +
+                    "two parallel arrays, epoch days and official rates, instead of one object per point"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved historical rates",
+                    content = {@Content(mediaType = BinaryFormatsConfig.CBOR_VALUE, schema = @Schema(implementation = HistorySeriesDto.class)),
+                            @Content(mediaType = BinaryFormatsConfig.SMILE_VALUE, schema = @Schema(implementation = HistorySeriesDto.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid date range"),
+            @ApiResponse(responseCode = "404", description = "Currency not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponseDto<HistorySeriesDto>> getHistorySeries(
+            @Parameter(description = "Currency code", example = "USD")
+            @PathVariable String code,
+            @Parameter(description = "Start date (YYYY-MM-DD)", example = "2025-09-01")
+            @RequestParam String start,
+            @Parameter(description = "End date (YYYY-MM-DD)", example = "2025-10-18")
+            @RequestParam String end) {
+        validateRange(start, end);
+
+        HistorySeriesDto series = currencyService.getHistorySeriesByCodeAndRange(code, start, end);
+        return ResponseEntity.ok(ApiResponseDto.success(series));
+    }
+
+    @GetMapping(value = "/history/{code}", params = "interval")
+    @Operation(
+            summary = "Get downsampled history by date range",
+            description = "Returns open/high/low/close/avg buckets per week, month or year for the periods overlapping " +
+                    "the inclusive date range. Buckets are precomputed per dataset and edge buckets cover whole periods."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved history buckets",
+                    content = @Content(schema = @Schema(implementation = ApiResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range or interval"),
+            @ApiResponse(responseCode = "404", description = "Currency not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponseDto<List<RateBucketDto>>> getHistoryRollup(
+            @Parameter(description = "Currency code", example = "USD")
+            @PathVariable String code,
+            @Parameter(description = "Start date (YYYY-MM-DD)", example = "2015-01-01")
+            @RequestParam String start,
+            @Parameter(description = "End date (YYYY-MM-DD)", example = "2025-10-18")
+            @RequestParam String end,
+            @Parameter(description = "Bucket size: week, month or year", example = "month")
+            @RequestParam String interval) {
+        RollupInterval rollupInterval = RollupInterval.fromParameter(interval);
+        if (rollupInterval == null) {
+            throw new BadRequestException("Invalid interval. Expected one of: week, month, year");
+        }
+        validateRange(start, end);
+
+        List<RateBucketDto> buckets = currencyService.getHistoryRollupByCodeAndRange(code, start, end, rollupInterval);
+        return ResponseEntity.ok(ApiResponseDto.success(buckets));
+    }
+
+    @GetMapping("/stats/{code}")
+    @Operation(
+            summary = "Get rolling statistics by date range",
+            description = "Returns, per published day of the inclusive date range, the simple and exponential moving " +
+                    "averages and rolling standard deviation over a window of published days, the return since the " +
+                    "previous day and the drawdown from the range's running high, plus a summary of the range"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully computed statistics",
+                    content = @Content(schema = @Schema(implementation = ApiResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range or window"),
+            @ApiResponse(responseCode = "404", description = "Currency not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponseDto<RateStatsDto>> getStats(
+            @Parameter(description = "Currency code", example = "USD")
+            @PathVariable String code,
+            @Parameter(description = "Start date (YYYY-MM-DD)", example = "2025-01-01")
+            @RequestParam String start,
+            @Parameter(description = "End date (YYYY-MM-DD)", example = "2025-10-18")
+            @RequestParam String end,
+            @Parameter(description = "Published rows per rolling window", example = "20")
+            @RequestParam(required = false) Integer window) {
+        validateRange(start, end);
+        int rows = window != null ? window : statsConfig.getDefaultWindow();
+        if (rows < 2 || rows > statsConfig.getMaxWindow()) {
+            throw new BadRequestException("'window' must be between 2 and " + statsConfig.getMaxWindow());
+        }
+
+        RateStatsDto stats = currencyService.getRateStatsByCodeAndRange(code, start, end, rows);
+        return ResponseEntity.ok(ApiResponseDto.success(stats));
+    }
+
     @GetMapping("/compare")
     @Operation(
             summary = "Compare two dates' rates",
-            description = "Returns rates for two dates and percentage change for a given currency code"
+            description = "Returns rates for two dates and percentage change for a given currency code. With asOf=true, " +
+                    "each date resolves to the latest rate published on or before it."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully compared rates",
@@ -147,7 +293,9 @@ public class ExchangeRateController {
             @Parameter(description = "From date (YYYY-MM-DD)", example = "2025-10-12")
             @RequestParam(name = "from") String fromDate,
             @Parameter(description = "To date (YYYY-MM-DD)", example = "2025-10-18")
-            @RequestParam(name = "to") String toDate) {
+            @RequestParam(name = "to") String toDate,
+            @Parameter(description = "Use the latest rate on or before each date when none was published that day")
+            @RequestParam(defaultValue = "false") boolean asOf) {
         try {
             LocalDate.parse(fromDate, DateTimeFormatter.ISO_LOCAL_DATE);
             LocalDate.parse(toDate, DateTimeFormatter.ISO_LOCAL_DATE);
@@ -155,8 +303,21 @@ public class ExchangeRateController {
             throw new BadRequestException("Invalid date format. Expected YYYY-MM-DD");
         }
 
-        CompareRatesResponseDto result = currencyService.compareRates(code, fromDate, toDate);
+        CompareRatesResponseDto result = currencyService.compareRates(code, fromDate, toDate, asOf);
         return ResponseEntity.ok(ApiResponseDto.success(result));
     }
 
+    private static void validateRange(String start, String end) {
+        LocalDate startDate;
+        LocalDate endDate;
+        try {
+            startDate = LocalDate.parse(start, DateTimeFormatter.ISO_LOCAL_DATE);
+            endDate = LocalDate.parse(end, DateTimeFormatter.ISO_LOCAL_DATE);
+        } catch (DateTimeParseException ex) {
+            throw new BadRequestException("Invalid date format. Expected YYYY-MM-DD");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new BadRequestException("'end' date must be on or after 'start' date");
+        }
+    }
 }
@@ -0,0 +1,109 @@
+package com.mauriexchange.code.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mauriexchange.code.config.RatesConfig;
+import com.mauriexchange.code.dto.HistoricalRatePointDto;
+import com.mauriexchange.code.dto.LatestRatesResponseDto;
+import com.mauriexchange.code.exception.BadRequestException;
+import com.mauriexchange.code.service.CurrencyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.stream.Stream;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/stream")
+@RequiredArgsConstructor
+@Tag(name = "Streaming API", description = "Exchange rate endpoints written incrementally as a JSON array or NDJSON")
+public class StreamController {
+
+    static final String RATES_DATE_HEADER = "X-Rates-Date";
+
+    private final CurrencyService currencyService;
+    private final RatesConfig ratesConfig;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping(value = "/history/{code}", produces = {MediaType.APPLICATION_JSON_VALUE, StreamingJson.NDJSON_VALUE})
+    @Operation(
+            summary = "Stream historical rates by date range",
+            description = "Same points as /api/v1/exchange-rates/history/{code}, without the response envelope. " +
+                    "Points are written as they are read from the dataset, as a JSON array or as NDJSON when " +
+                    "requested with Accept: application/x-ndjson, so memory use does not grow with the range."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Historical rates stream",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = HistoricalRatePointDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range"),
+            @ApiResponse(responseCode = "404", description = "Currency not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<StreamingResponseBody> streamHistory(
+            @Parameter(description = "Currency code", example = "USD")
+            @PathVariable String code,
+            @Parameter(description = "Start date (YYYY-MM-DD)", example = "2025-09-01")
+            @RequestParam String start,
+            @Parameter(description = "End date (YYYY-MM-DD)", example = "2025-10-18")
+            @RequestParam String end,
+            HttpServletRequest request) {
+        LocalDate startDate;
+        LocalDate endDate;
+        try {
+            startDate = LocalDate.parse(start, DateTimeFormatter.ISO_LOCAL_DATE);
+            endDate = LocalDate.parse(end, DateTimeFormatter.ISO_LOCAL_DATE);
+        } catch (DateTimeParseException ex) {
+            throw new BadRequestException("Invalid date format. Expected YYYY-MM-DD");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new BadRequestException("'end' date must be on or after 'start' date");
+        }
+
+        Stream<HistoricalRatePointDto> points = currencyService.streamHistoryByCodeAndRange(code, start, end);
+        boolean ndjson = StreamingJson.acceptsNdjson(request);
+        return ResponseEntity.ok()
+                .contentType(StreamingJson.contentType(ndjson))
+                .body(StreamingJson.body(objectMapper, points, ndjson));
+    }
+
+    @GetMapping(value = "/latest", produces = {MediaType.APPLICATION_JSON_VALUE, StreamingJson.NDJSON_VALUE})
+    @Operation(
+            summary = "Stream latest rates for all currencies",
+            description = "Items of /api/v1/exchange-rates/latest written one by one, as a JSON array or as NDJSON " +
+                    "when requested with Accept: application/x-ndjson. The latest date is sent in the X-Rates-Date header."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Latest rates stream",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = LatestRatesResponseDto.Item.class)))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<StreamingResponseBody> streamLatestRates(HttpServletRequest request) {
+        // The latest-rates payload is precomputed per snapshot, so this only streams existing items
+        LatestRatesResponseDto payload = currencyService.getLatestRates(ratesConfig.getMargin());
+        boolean ndjson = StreamingJson.acceptsNdjson(request);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(StreamingJson.contentType(ndjson));
+        if (payload.getDate() != null) {
+            response.header(RATES_DATE_HEADER, payload.getDate());
+        }
+        return response.body(StreamingJson.body(objectMapper, payload.getData().stream(), ndjson));
+    }
+}
@@ -0,0 +1,65 @@
+package com.mauriexchange.code.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream of values as a JSON array or as NDJSON, one value at a time, so the
+ * response never holds more than the current value plus the container's output buffer.
+ */
+final class StreamingJson {
+
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+
+    private StreamingJson() {
+    }
+
+    /**
+     * Whether the client explicitly asked for NDJSON rather than accepting anything.
+     */
+    static boolean acceptsNdjson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return false;
+        }
+        return MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(type -> !type.isWildcardType() && !type.isWildcardSubtype() && type.isCompatibleWith(NDJSON));
+    }
+
+    static MediaType contentType(boolean ndjson) {
+        return ndjson ? NDJSON : MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Body writing the values as NDJSON lines or as the elements of one JSON array. The output
+     * stream blocks while the client is not reading, which throttles how fast values are pulled.
+     */
+    static <T> StreamingResponseBody body(ObjectMapper objectMapper, Stream<T> values, boolean ndjson) {
+        return out -> {
+            try (values; JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                if (ndjson) {
+                    generator.setRootValueSeparator(new SerializedString("\n"));
+                } else {
+                    generator.writeStartArray();
+                }
+                for (Iterator<T> it = values.iterator(); it.hasNext(); ) {
+                    generator.writeObject(it.next());
+                }
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                } else {
+                    generator.writeEndArray();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.mauriexchange.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Historical rates of several currencies on one shared date axis.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlignedHistoryDto {
+    private String start;
+    private String end;
+    private List<String> dates; // Every day with a rate for at least one of the currencies, ascending
+    private Map<String, Double[]> rates; // Per code, in request order: one value per date, null where there is none
+}
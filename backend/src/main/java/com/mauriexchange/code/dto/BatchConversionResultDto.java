@@ -0,0 +1,17 @@
+package com.mauriexchange.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchConversionResultDto {
+    private int index; // position of the item in the request
+    private boolean success;
+    private ConversionResponseDto data;
+    private String error;
+}
@@ -13,6 +13,8 @@ public class CompareRatesResponseDto {
     private String code;
     private String fromDate;
     private String toDate;
+    private String fromEffectiveDate;
+    private String toEffectiveDate;
     private Double rateFrom;
     private Double rateTo;
     private String changePercent;
@@ -0,0 +1,17 @@
+package com.mauriexchange.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConversionRequestDto {
+    private String from;
+    private String to;
+    private Double amount;
+    private String date; // optional YYYY-MM-DD; latest rates when absent
+}
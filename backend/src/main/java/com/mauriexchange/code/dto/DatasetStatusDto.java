@@ -0,0 +1,23 @@
+package com.mauriexchange.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DatasetStatusDto {
+    private long version;
+    private LocalDateTime loadedAt;
+    private long loadDurationMs;
+    private int currencies;
+    private long records;
+    private LocalDateTime sourceLastModified;
+    private long sourceSize;
+    private String lastReloadError; // null when the last reload attempt succeeded
+}
@@ -0,0 +1,19 @@
+package com.mauriexchange.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Historical rates of one currency as parallel packed columns, the shape sent to binary clients.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HistorySeriesDto {
+    private String code;
+    private int[] days; // Days since 1970-01-01, ascending
+    private double[] officialRates; // NaN where the source value could not be parsed
+}
@@ -0,0 +1,20 @@
+package com.mauriexchange.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LatestRatesDiffDto {
+    private long version;
+    private long previousVersion;
+    private String date; // latest date across currencies
+    private List<LatestRatesResponseDto.Item> changed; // new or updated items
+    private List<String> removed; // codes no longer present
+}
@@ -13,6 +13,7 @@ public class OfficialRateResponseDto {
     private String code;
     private Double officialRate;
     private String date;
+    private String effectiveDate; // day the rate was published; earlier than date for as-of lookups on gaps
     private String source; // e.g., BCM or CACHE
 }
 
@@ -29,6 +29,7 @@ public class PaginatedResponseDto<T> {
         private boolean hasPrevious;
         private boolean isFirst;
         private boolean isLast;
+        private String nextCursor; // Pass as ?after= to get the next page in cursor mode, null on the last page
     }
 }
 
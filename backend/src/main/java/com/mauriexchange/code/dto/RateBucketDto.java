@@ -0,0 +1,21 @@
+package com.mauriexchange.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RateBucketDto {
+    private String start; // first day of the period
+    private String end; // last day of the period
+    private Double open;
+    private Double high;
+    private Double low;
+    private Double close;
+    private Double avg;
+    private int count; // rates aggregated
+}
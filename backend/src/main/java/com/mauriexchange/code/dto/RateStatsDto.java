@@ -0,0 +1,51 @@
+package com.mauriexchange.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Rolling statistics of a currency over a date range, as parallel columns with one entry per published day.
+ * Values that are not defined for a day (a moving average before the window is full) are null.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RateStatsDto {
+    private String code;
+    private String start;
+    private String end;
+    private int window; // Published days per rolling window
+    private Summary summary;
+    private List<String> dates;
+    private Double[] values;
+    private Double[] sma;
+    private Double[] ema;
+    private Double[] stddev;
+    private Double[] returns; // Simple return since the previous published day
+    private Double[] drawdown; // Relative distance below the highest value since the start of the range
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Summary {
+        private int count;
+        private Double first;
+        private Double last;
+        private Double change; // Relative change from first to last
+        private Double min;
+        private String minDate;
+        private Double max;
+        private String maxDate;
+        private Double mean;
+        private Double volatility; // Standard deviation of the returns
+        private Double maxDrawdown;
+        private String maxDrawdownPeakDate;
+        private String maxDrawdownTroughDate;
+    }
+}
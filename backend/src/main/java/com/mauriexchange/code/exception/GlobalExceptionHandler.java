@@ -1,6 +1,8 @@
 package com.mauriexchange.code.exception;
 
 import com.mauriexchange.code.dto.ApiResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -12,7 +14,10 @@ import java.time.LocalDateTime;
 
 @Slf4j
 @RestControllerAdvice(basePackages = "com.mauriexchange.code.controller")
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
+
+    private final MeterRegistry meterRegistry;
     
     @ExceptionHandler(DataNotFoundException.class)
     public ResponseEntity<ApiResponseDto<Void>> handleDataNotFoundException(
@@ -25,6 +30,7 @@ public class GlobalExceptionHandler {
                 .timestamp(LocalDateTime.now())
                 .build();
         
+        countError(HttpStatus.NOT_FOUND, ex);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
     
@@ -39,6 +45,7 @@ public class GlobalExceptionHandler {
                 .timestamp(LocalDateTime.now())
                 .build();
         
+        countError(HttpStatus.INTERNAL_SERVER_ERROR, ex);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
     
@@ -53,9 +60,25 @@ public class GlobalExceptionHandler {
                 .timestamp(LocalDateTime.now())
                 .build();
         
+        countError(HttpStatus.BAD_REQUEST, ex);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
     
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponseDto<Void>> handleServiceUnavailableException(
+            ServiceUnavailableException ex, WebRequest request) {
+        log.warn("Service unavailable: {}", ex.getMessage());
+        
+        ApiResponseDto<Void> response = ApiResponseDto.<Void>builder()
+                .success(false)
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+        
+        countError(HttpStatus.SERVICE_UNAVAILABLE, ex);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponseDto<Void>> handleGenericException(
             Exception ex, WebRequest request) {
@@ -67,6 +90,13 @@ public class GlobalExceptionHandler {
                 .timestamp(LocalDateTime.now())
                 .build();
         
+        countError(HttpStatus.INTERNAL_SERVER_ERROR, ex);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
+
+    private void countError(HttpStatus status, Exception ex) {
+        meterRegistry.counter("api.errors",
+                "status", String.valueOf(status.value()),
+                "exception", ex.getClass().getSimpleName()).increment();
+    }
 }
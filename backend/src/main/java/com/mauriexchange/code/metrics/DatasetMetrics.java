@@ -0,0 +1,58 @@
+package com.mauriexchange.code.metrics;
+
+import com.mauriexchange.code.store.RatesSnapshot;
+import com.mauriexchange.code.store.RatesSnapshotStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Gauges describing the dataset snapshot currently being served. Each gauge reads the
+ * live snapshot at scrape time and reports NaN until the first load succeeded.
+ */
+@Component
+@RequiredArgsConstructor
+public class DatasetMetrics implements MeterBinder {
+
+    private final RatesSnapshotStore snapshotStore;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("dataset.version", snapshotStore, snapshot(RatesSnapshot::getVersion))
+                .description("Version of the served dataset snapshot")
+                .register(registry);
+        Gauge.builder("dataset.currencies", snapshotStore, snapshot(s -> s.currencies().size()))
+                .description("Currencies in the served snapshot")
+                .register(registry);
+        Gauge.builder("dataset.records", snapshotStore, snapshot(RatesSnapshot::getRecordCount))
+                .description("Rate records in the served snapshot")
+                .register(registry);
+        TimeGauge.builder("dataset.load.duration", snapshotStore, TimeUnit.MILLISECONDS,
+                        snapshot(s -> s.getLoadDuration().toMillis()))
+                .description("Time taken to load the served snapshot")
+                .register(registry);
+        TimeGauge.builder("dataset.snapshot.age", snapshotStore, TimeUnit.MILLISECONDS,
+                        snapshot(s -> Duration.between(s.getLoadedAt(), Instant.now()).toMillis()))
+                .description("Time since the served snapshot was published")
+                .register(registry);
+        TimeGauge.builder("dataset.source.age", snapshotStore, TimeUnit.MILLISECONDS,
+                        snapshot(s -> System.currentTimeMillis() - s.getSourceStamp().lastModifiedMillis()))
+                .description("Time since the source file of the served snapshot was modified")
+                .register(registry);
+    }
+
+    private static ToDoubleFunction<RatesSnapshotStore> snapshot(ToDoubleFunction<RatesSnapshot> value) {
+        return store -> {
+            RatesSnapshot snapshot = store.peek();
+            return snapshot != null ? value.applyAsDouble(snapshot) : Double.NaN;
+        };
+    }
+}
@@ -0,0 +1,379 @@
+package com.mauriexchange.code.push;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mauriexchange.code.config.RatesConfig;
+import com.mauriexchange.code.config.RatesStreamConfig;
+import com.mauriexchange.code.dto.LatestRatesDiffDto;
+import com.mauriexchange.code.dto.LatestRatesResponseDto;
+import com.mauriexchange.code.exception.DataProcessingException;
+import com.mauriexchange.code.exception.ServiceUnavailableException;
+import com.mauriexchange.code.service.CurrencyService;
+import com.mauriexchange.code.store.RatesSnapshotStore;
+import com.mauriexchange.code.store.SnapshotPublishedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes the latest-rates payload to Server-Sent Events subscribers.
+ *
+ * <p>Each dataset snapshot is serialized once: a full {@code snapshot} event for new subscribers and a
+ * {@code diff} event against the previous snapshot for everyone already connected. Event ids are
+ * {@code <epoch>-<version>}, where the epoch is drawn at random when the process starts: versions restart
+ * at 1 in every process, so only an id of this process says which snapshot the client holds. A client
+ * reconnecting with {@code Last-Event-ID} is replayed the diffs it missed while they are still retained,
+ * or sent a full snapshot otherwise, and always when the id comes from another process. Idle subscribers only hold an async
+ * request; a periodic comment keeps intermediaries from closing them.</p>
+ *
+ * <p>Publishing and heartbeats only queue events. Each subscriber's queue is written out by a small
+ * dedicated pool, one task per subscriber at a time, so a stalled client holds up neither reloads nor the
+ * scheduler nor other subscribers. A subscriber that falls {@code max-pending-events} behind, or whose
+ * write fails, is dropped.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LatestRatesBroadcaster implements MeterBinder {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String DIFF_EVENT = "diff";
+
+    private final RatesSnapshotStore snapshotStore;
+    private final CurrencyService currencyService;
+    private final RatesConfig ratesConfig;
+    private final RatesStreamConfig streamConfig;
+    private final ObjectMapper objectMapper;
+
+    private final String epoch = Long.toHexString(new SecureRandom().nextLong() & Long.MAX_VALUE);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Object lock = new Object();
+    private ThreadPoolExecutor sender;
+
+    // Guarded by lock
+    private Published published;
+    private final NavigableMap<Long, String> diffs = new TreeMap<>();
+
+    @PostConstruct
+    void startSender() {
+        AtomicInteger threads = new AtomicInteger();
+        // At most one task per subscriber is queued at a time, so the queue never outgrows the subscribers
+        sender = new ThreadPoolExecutor(streamConfig.getSendThreads(), streamConfig.getSendThreads(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(Math.max(1, streamConfig.getMaxSubscribers())),
+                task -> {
+                    Thread thread = new Thread(task, "rates-stream-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stopSender() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * Register a subscriber and send it what it needs to be up to date. The first events are written on
+     * the calling thread, outside the lock.
+     * @param lastEventId Last-Event-ID sent by a reconnecting client, or null
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= streamConfig.getMaxSubscribers()) {
+            throw new ServiceUnavailableException("Too many rate stream subscribers, retry later");
+        }
+
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        synchronized (lock) {
+            Published current = refresh();
+            Long since = parseEventId(lastEventId);
+            if (since != null && canReplay(since, current.version())) {
+                for (Map.Entry<Long, String> diff : diffs.tailMap(since, false).entrySet()) {
+                    subscriber.queue(event(diff.getKey(), DIFF_EVENT, diff.getValue()));
+                }
+            } else {
+                subscriber.queue(event(current.version(), SNAPSHOT_EVENT, current.json()));
+            }
+            // Registered with its first events queued, so no diff published from now on is missed
+            subscribers.add(subscriber);
+        }
+        subscriber.drain();
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rates.stream.subscribers", this, LatestRatesBroadcaster::subscriberCount)
+                .description("Open latest-rates SSE subscriptions")
+                .register(registry);
+    }
+
+    @EventListener
+    public void onSnapshotPublished(SnapshotPublishedEvent event) {
+        Set<DataWithMediaType> message;
+        List<Subscriber> targets;
+        synchronized (lock) {
+            long before = published != null ? published.version() : -1;
+            Published current = refresh();
+            String diff = diffs.get(current.version());
+            if (current.version() == before || diff == null) {
+                return;
+            }
+            message = event(current.version(), DIFF_EVENT, diff);
+            targets = List.copyOf(subscribers);
+        }
+        log.debug("Pushing latest rates v{} to {} subscribers", event.snapshot().getVersion(), targets.size());
+        for (Subscriber subscriber : targets) {
+            subscriber.send(message);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.rates-stream.heartbeat-interval-ms:15000}",
+            initialDelayString = "${app.rates-stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> comment = SseEmitter.event().comment("heartbeat").build();
+        for (Subscriber subscriber : subscribers) {
+            // A subscriber with events still queued does not need one
+            if (subscriber.isIdle()) {
+                subscriber.send(comment);
+            }
+        }
+    }
+
+    /**
+     * Bring the published payload in line with the served snapshot, recording the diff from the
+     * previously published one.
+     */
+    private Published refresh() {
+        long version = snapshotStore.current().getVersion();
+        if (published != null && published.version() == version) {
+            return published;
+        }
+
+        LatestRatesResponseDto payload = currencyService.getLatestRates(ratesConfig.getMargin());
+        Map<String, LatestRatesResponseDto.Item> items = new LinkedHashMap<>();
+        for (LatestRatesResponseDto.Item item : payload.getData()) {
+            items.putIfAbsent(item.getCode(), item);
+        }
+
+        if (published != null && published.version() < version) {
+            diffs.put(version, toJson(diff(published, version, payload.getDate(), items)));
+            while (diffs.size() > streamConfig.getReplayDepth()) {
+                diffs.pollFirstEntry();
+            }
+        } else {
+            // First publication, or versions restarted: nothing to diff against
+            diffs.clear();
+        }
+        published = new Published(version, items, toJson(payload));
+        return published;
+    }
+
+    private static LatestRatesDiffDto diff(Published previous, long version, String date,
+                                           Map<String, LatestRatesResponseDto.Item> items) {
+        List<LatestRatesResponseDto.Item> changed = new ArrayList<>();
+        for (Map.Entry<String, LatestRatesResponseDto.Item> item : items.entrySet()) {
+            if (!Objects.equals(previous.items().get(item.getKey()), item.getValue())) {
+                changed.add(item.getValue());
+            }
+        }
+        List<String> removed = new ArrayList<>();
+        for (String code : previous.items().keySet()) {
+            if (!items.containsKey(code)) {
+                removed.add(code);
+            }
+        }
+        return LatestRatesDiffDto.builder()
+                .version(version)
+                .previousVersion(previous.version())
+                .date(date)
+                .changed(changed)
+                .removed(removed)
+                .build();
+    }
+
+    private boolean canReplay(long since, long current) {
+        if (since == current) {
+            return true;
+        }
+        if (since > current) {
+            return false;
+        }
+        for (long version = since + 1; version <= current; version++) {
+            if (!diffs.containsKey(version)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Version of an event id sent by this process, or null for anything else.
+     */
+    private Long parseEventId(String lastEventId) {
+        if (lastEventId == null) {
+            return null;
+        }
+        String id = lastEventId.trim();
+        int separator = id.indexOf('-');
+        if (separator < 0 || !id.regionMatches(0, epoch, 0, separator) || separator != epoch.length()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(id.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Set<DataWithMediaType> event(long version, String name, String json) {
+        return SseEmitter.event()
+                .id(epoch + '-' + version)
+                .name(name)
+                .data(json, MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new DataProcessingException("Failed to serialize latest rates", e);
+        }
+    }
+
+    private record Published(long version, Map<String, LatestRatesResponseDto.Item> items, String json) {}
+
+    /**
+     * An emitter with its queue of events not written yet.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        // Set while a thread writes the queue out; starts set for the subscribing thread
+        private final AtomicBoolean draining = new AtomicBoolean(true);
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        boolean isIdle() {
+            return pendingCount.get() == 0;
+        }
+
+        /**
+         * Queue an event without writing it.
+         */
+        void queue(Set<DataWithMediaType> message) {
+            pending.add(message);
+            pendingCount.incrementAndGet();
+        }
+
+        /**
+         * Queue an event and have the pool write it out, unless a write is already under way.
+         */
+        void send(Set<DataWithMediaType> message) {
+            if (closed) {
+                return;
+            }
+            if (pendingCount.get() >= streamConfig.getMaxPendingEvents()) {
+                // Not reading: the thread writing to it, if any, completes the emitter when it gets out
+                log.debug("Dropping a rate stream subscriber {} events behind", pendingCount.get());
+                close();
+                return;
+            }
+            queue(message);
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    close();
+                }
+            }
+        }
+
+        /**
+         * Write queued events until the queue is empty. Only called by the thread that set {@code draining}.
+         */
+        void drain() {
+            do {
+                Set<DataWithMediaType> message;
+                while (!closed && (message = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    try {
+                        emitter.send(message);
+                    } catch (IOException | IllegalStateException e) {
+                        // Client went away; the container completes the emitter, we only stop writing to it
+                        closed = true;
+                        subscribers.remove(this);
+                    }
+                }
+                if (closed) {
+                    pending.clear();
+                    completeQuietly();
+                    return;
+                }
+                draining.set(false);
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            if (draining.compareAndSet(false, true)) {
+                completeQuietly();
+            }
+        }
+
+        private void completeQuietly() {
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // Already completed
+            }
+        }
+    }
+}
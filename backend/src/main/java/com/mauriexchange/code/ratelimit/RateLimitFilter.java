@@ -0,0 +1,114 @@
+package com.mauriexchange.code.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mauriexchange.code.config.RateLimitConfig;
+import com.mauriexchange.code.dto.ApiResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Admission control for the API: every client (configured API key, or remote address otherwise) spends
+ * tokens from its own bucket, more for costlier endpoints, and is answered 429 with Retry-After when it
+ * runs out. Runs right after CORS, ahead of the response cache, so cached responses are paid for too.
+ * Unknown keys are ignored, so rotating them neither escapes the limit nor fills the client table.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String API = "/api/";
+
+    private final RateLimitConfig rateLimitConfig;
+    private final ObjectMapper objectMapper;
+    private final TokenBuckets buckets;
+    private final Set<String> apiKeys;
+    private final String[] costPrefixes;
+    private final int[] costs;
+    private final Counter throttled;
+
+    public RateLimitFilter(RateLimitConfig rateLimitConfig, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rateLimitConfig = rateLimitConfig;
+        this.objectMapper = objectMapper;
+        this.buckets = new TokenBuckets(rateLimitConfig.getCapacity(), rateLimitConfig.getRefillPerSecond(),
+                rateLimitConfig.getMaxClients(), rateLimitConfig.getOverflowStripes());
+        this.apiKeys = Set.copyOf(rateLimitConfig.getApiKeys());
+        // Longest prefix first, so the most specific weight wins
+        List<Map.Entry<String, Integer>> weights = new ArrayList<>(rateLimitConfig.getCosts().entrySet());
+        weights.sort(Comparator.comparingInt(weight -> -weight.getKey().length()));
+        this.costPrefixes = new String[weights.size()];
+        this.costs = new int[weights.size()];
+        for (int i = 0; i < weights.size(); i++) {
+            costPrefixes[i] = weights.get(i).getKey();
+            costs[i] = weights.get(i).getValue();
+        }
+        this.throttled = meterRegistry.counter("api.throttled");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimitConfig.isEnabled() || !request.getRequestURI().startsWith(API);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long waitNanos = buckets.tryAcquire(clientKey(request), cost(request.getRequestURI()));
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        throttled.increment();
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponseDto.error("Too many requests, retry in " + retryAfterSeconds + " s"));
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void sweep() {
+        int before = buckets.size();
+        buckets.sweep();
+        log.debug("Rate limiter tracks {} clients ({} idle dropped)", buckets.size(), before - buckets.size());
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(rateLimitConfig.getApiKeyHeader());
+        if (apiKey != null && apiKeys.contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private int cost(String path) {
+        for (int i = 0; i < costPrefixes.length; i++) {
+            if (path.startsWith(costPrefixes[i])) {
+                return costs[i];
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,103 @@
+package com.mauriexchange.code.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets, each held in a single {@link AtomicLong} and updated with one CAS.
+ *
+ * <p>A bucket stores the time at which it would be full again (the generic cell rate algorithm): taking
+ * {@code cost} tokens pushes that time {@code cost} refill intervals further, and a request is refused
+ * when it would move it more than {@code capacity} intervals ahead of now. So there is no refill task and
+ * no lock, and a bucket whose time has passed is full, which is the same as having no bucket at all.
+ * Idle buckets are dropped by {@link #sweep()}.</p>
+ *
+ * <p>Memory is bounded: past {@code maxClients} tracked clients, new ones are hashed onto a fixed set of
+ * shared buckets, which throttles them together rather than letting the table grow.</p>
+ */
+public final class TokenBuckets {
+
+    private final long intervalNanos;
+    private final int capacity;
+    private final long toleranceNanos;
+    private final int maxClients;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong[] overflow;
+    private final LongSupplier clock;
+
+    public TokenBuckets(int capacity, double refillPerSecond, int maxClients, int overflowStripes) {
+        this(capacity, refillPerSecond, maxClients, overflowStripes, originTicker());
+    }
+
+    TokenBuckets(int capacity, double refillPerSecond, int maxClients, int overflowStripes, LongSupplier clock) {
+        if (capacity < 1 || refillPerSecond <= 0 || overflowStripes < 1) {
+            throw new IllegalArgumentException("Capacity, refill rate and stripes must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.capacity = capacity;
+        this.toleranceNanos = intervalNanos * capacity;
+        this.maxClients = maxClients;
+        this.clock = clock;
+        long now = clock.getAsLong();
+        overflow = new AtomicLong[overflowStripes];
+        for (int i = 0; i < overflowStripes; i++) {
+            overflow[i] = new AtomicLong(now);
+        }
+    }
+
+    /**
+     * Take {@code cost} tokens from the client's bucket. A cost above the capacity takes the whole bucket.
+     * @return 0 if the request is admitted, otherwise the nanoseconds until it would be
+     */
+    public long tryAcquire(String client, int cost) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = bucket(client, now);
+        long increment = intervalNanos * Math.max(1, Math.min(cost, capacity));
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + increment;
+            long wait = next - toleranceNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop the buckets that are full again. A request racing with the sweep may lose the tokens it just
+     * took, which only ever favours that client by one request.
+     */
+    public void sweep() {
+        long now = clock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+    }
+
+    /**
+     * Number of tracked clients.
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(String client, long now) {
+        AtomicLong bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() < maxClients) {
+            return buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+        }
+        return overflow[Math.floorMod(client.hashCode(), overflow.length)];
+    }
+
+    private static LongSupplier originTicker() {
+        // Relative to creation, so times start at 0 whatever the sign of System.nanoTime()
+        long origin = System.nanoTime();
+        return () -> System.nanoTime() - origin;
+    }
+}
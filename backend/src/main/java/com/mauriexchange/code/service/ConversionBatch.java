@@ -0,0 +1,21 @@
+package com.mauriexchange.code.service;
+
+import com.mauriexchange.code.dto.ConversionResponseDto;
+
+/**
+ * Converter bound to a single dataset snapshot, so that every item of a batch is priced
+ * against the same rate set even if a new snapshot is published meanwhile.
+ */
+public interface ConversionBatch {
+
+    /**
+     * Convert one item.
+     * @param from Source currency code
+     * @param to Target currency code
+     * @param amount Amount to convert
+     * @param date Optional date (YYYY-MM-DD) of the official rates to use; latest rates when null
+     * @throws com.mauriexchange.code.exception.BadRequestException if the item is invalid
+     * @throws com.mauriexchange.code.exception.DataNotFoundException if a rate is missing
+     */
+    ConversionResponseDto convert(String from, String to, double amount, String date);
+}
@@ -0,0 +1,177 @@
+package com.mauriexchange.code.service;
+
+import com.mauriexchange.code.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Parts of a currency requested by a client: a sparse fieldset ({@code fields=}) and how much of the rate
+ * history to embed ({@code includeRates=}). Field names are those of {@code CurrencyResponseDto}; rate
+ * fields are addressed as {@code exchangeRates.<field>}.
+ */
+public final class CurrencyProjection {
+
+    static final String[] CURRENCY_FIELDS = {
+            "id", "nameFr", "nameAr", "unity", "code", "createdAt", "updatedAt", "publishedAt", "exchangeRates"};
+    static final String[] RATE_FIELDS = {
+            "id", "day", "value", "createdAt", "updatedAt", "publishedAt", "endDate"};
+
+    // Indexes in CURRENCY_FIELDS
+    static final int ID = 0;
+    static final int NAME_FR = 1;
+    static final int NAME_AR = 2;
+    static final int UNITY = 3;
+    static final int CODE = 4;
+    static final int CREATED_AT = 5;
+    static final int UPDATED_AT = 6;
+    static final int PUBLISHED_AT = 7;
+    static final int EXCHANGE_RATES = 8;
+    // Indexes in RATE_FIELDS
+    static final int RATE_ID = 0;
+    static final int RATE_DAY = 1;
+    static final int RATE_VALUE = 2;
+    static final int RATE_CREATED_AT = 3;
+    static final int RATE_UPDATED_AT = 4;
+    static final int RATE_PUBLISHED_AT = 5;
+    static final int RATE_END_DATE = 6;
+
+    private static final int RATES_BIT = 1 << EXCHANGE_RATES;
+    private static final int ALL_CURRENCY_FIELDS = (1 << CURRENCY_FIELDS.length) - 1;
+    private static final int ALL_RATE_FIELDS = (1 << RATE_FIELDS.length) - 1;
+    private static final String RATES_PREFIX = "exchangeRates.";
+
+    public enum Rates {
+        /** The whole history, as without any option. */
+        ALL,
+        /** No history. */
+        NONE,
+        /** The most recent rows, oldest first. */
+        LATEST,
+        /** Rows published between two days, inclusive. */
+        RANGE
+    }
+
+    public static final CurrencyProjection FULL =
+            new CurrencyProjection(ALL_CURRENCY_FIELDS, ALL_RATE_FIELDS, Rates.ALL, 0, null, null);
+
+    private final int fields;
+    private final int rateFields;
+    private final Rates rates;
+    private final int latestCount;
+    private final String start;
+    private final String end;
+
+    private CurrencyProjection(int fields, int rateFields, Rates rates, int latestCount, String start, String end) {
+        this.fields = fields;
+        this.rateFields = rateFields;
+        this.rates = rates;
+        this.latestCount = latestCount;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @param fields Comma separated field names, or null for all of them
+     * @param includeRates {@code all}, {@code none}, {@code latest}, a number of latest rows or {@code range};
+     *                     null embeds the whole history only if it is part of the fieldset
+     * @param start First day of a {@code range} (YYYY-MM-DD)
+     * @param end Last day of a {@code range} (YYYY-MM-DD)
+     * @throws BadRequestException on an unknown field or option
+     */
+    public static CurrencyProjection parse(String fields, String includeRates, String start, String end) {
+        int currencyMask = ALL_CURRENCY_FIELDS;
+        int rateMask = ALL_RATE_FIELDS;
+        if (fields != null && !fields.isBlank()) {
+            currencyMask = 0;
+            rateMask = 0;
+            for (String token : fields.split(",")) {
+                String field = token.trim();
+                if (field.isEmpty()) {
+                    continue;
+                }
+                if (field.startsWith(RATES_PREFIX)) {
+                    rateMask |= bit(RATE_FIELDS, field.substring(RATES_PREFIX.length()), field);
+                    currencyMask |= RATES_BIT;
+                } else {
+                    currencyMask |= bit(CURRENCY_FIELDS, field, field);
+                }
+            }
+            if ((currencyMask & RATES_BIT) != 0 && rateMask == 0) {
+                rateMask = ALL_RATE_FIELDS;
+            }
+        }
+
+        Rates rates;
+        int latestCount = 0;
+        String option = includeRates == null ? "" : includeRates.trim().toLowerCase(Locale.ROOT);
+        switch (option) {
+            case "" -> rates = (currencyMask & RATES_BIT) != 0 ? Rates.ALL : Rates.NONE;
+            case "all" -> rates = Rates.ALL;
+            case "none" -> rates = Rates.NONE;
+            case "latest" -> {
+                rates = Rates.LATEST;
+                latestCount = 1;
+            }
+            case "range" -> {
+                if (start == null || end == null) {
+                    throw new BadRequestException("includeRates=range requires 'start' and 'end' dates");
+                }
+                rates = Rates.RANGE;
+            }
+            default -> {
+                try {
+                    latestCount = Integer.parseInt(option);
+                } catch (NumberFormatException e) {
+                    throw new BadRequestException("'includeRates' must be none, latest, all, range or a number of rates");
+                }
+                if (latestCount < 0) {
+                    throw new BadRequestException("'includeRates' must not be negative");
+                }
+                rates = Rates.LATEST;
+            }
+        }
+        if (rates == Rates.NONE) {
+            currencyMask &= ~RATES_BIT;
+        } else {
+            // Asking for rates implies returning them, even with a fieldset that does not list them
+            currencyMask |= RATES_BIT;
+            if (rateMask == 0) {
+                rateMask = ALL_RATE_FIELDS;
+            }
+        }
+        return new CurrencyProjection(currencyMask, rateMask, rates, latestCount, start, end);
+    }
+
+    boolean hasField(int index) {
+        return (fields & (1 << index)) != 0;
+    }
+
+    boolean hasRateField(int index) {
+        return (rateFields & (1 << index)) != 0;
+    }
+
+    public Rates getRates() {
+        return rates;
+    }
+
+    public int getLatestCount() {
+        return latestCount;
+    }
+
+    public String getStart() {
+        return start;
+    }
+
+    public String getEnd() {
+        return end;
+    }
+
+    private static int bit(String[] names, String name, String requested) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return 1 << i;
+            }
+        }
+        throw new BadRequestException("Unknown field '" + requested + "'");
+    }
+}
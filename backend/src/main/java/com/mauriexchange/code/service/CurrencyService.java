@@ -1,15 +1,22 @@
 package com.mauriexchange.code.service;
 
+import com.mauriexchange.code.dto.AlignedHistoryDto;
+import com.mauriexchange.code.dto.CurrencyListItemDto;
 import com.mauriexchange.code.dto.CurrencyResponseDto;
 import com.mauriexchange.code.dto.PaginatedResponseDto;
 import com.mauriexchange.code.dto.OfficialRateResponseDto;
 import com.mauriexchange.code.dto.LatestRatesResponseDto;
 import com.mauriexchange.code.dto.ConversionResponseDto;
 import com.mauriexchange.code.dto.HistoricalRatePointDto;
+import com.mauriexchange.code.dto.HistorySeriesDto;
 import com.mauriexchange.code.dto.CompareRatesResponseDto;
+import com.mauriexchange.code.dto.RateBucketDto;
+import com.mauriexchange.code.dto.RateStatsDto;
+import com.mauriexchange.code.store.RollupInterval;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CurrencyService {
     
@@ -27,6 +34,14 @@ public interface CurrencyService {
      */
     PaginatedResponseDto<CurrencyResponseDto> getAllCurrenciesPaginated(int page, int size);
     
+    /**
+     * Get the currencies following a cursor, in code order. Cursors stay valid across dataset reloads.
+     * @param size Page size
+     * @param after Cursor returned as {@code nextCursor} by the previous page, or null for the first page
+     * @return Paginated response containing currencies
+     */
+    PaginatedResponseDto<CurrencyResponseDto> getAllCurrenciesAfter(int size, String after);
+    
     /**
      * Get currency by ID
      * @param id Currency ID
@@ -41,6 +56,14 @@ public interface CurrencyService {
      */
     Optional<CurrencyResponseDto> getCurrencyByCode(String code);
     
+    /**
+     * Get the requested parts of a currency by code, without converting anything that was not asked for
+     * @param code Currency code (e.g., USD, EUR)
+     * @param projection Fields and rate history to include
+     * @return Optional containing the projected currency if found
+     */
+    Optional<CurrencyView> getCurrencyByCode(String code, CurrencyProjection projection);
+    
     /**
      * Get currencies by name (French or Arabic)
      * @param name Name to search for
@@ -57,6 +80,23 @@ public interface CurrencyService {
      */
     PaginatedResponseDto<CurrencyResponseDto> getCurrenciesByNamePaginated(String name, int page, int size);
     
+    /**
+     * Get the currencies matching a name following a cursor, in code order
+     * @param name Name to search for
+     * @param size Page size
+     * @param after Cursor returned as {@code nextCursor} by the previous page, or null for the first page
+     * @return Paginated response containing matching currencies
+     */
+    PaginatedResponseDto<CurrencyResponseDto> getCurrenciesByNameAfter(String name, int size, String after);
+    
+    /**
+     * Typeahead over currency codes and names (French or Arabic), ignoring case, accents and Arabic spelling variants
+     * @param query Prefix of a code, a name or any word of a name
+     * @param limit Maximum number of suggestions
+     * @return Matching currencies, best matches first
+     */
+    List<CurrencyListItemDto> suggestCurrencies(String query, int limit);
+    
     /**
      * Get latest exchange rates for a specific currency
      * @param currencyId Currency ID
@@ -83,6 +123,13 @@ public interface CurrencyService {
      */
     Optional<OfficialRateResponseDto> getOfficialRateByCodeAndDate(String code, String date);
 
+    /**
+     * Get official rate for a currency code at a date, or with asOf the latest rate published on or before it.
+     * @param asOf Fall back to the closest earlier rate (weekends, holidays) instead of requiring an exact match
+     * @return Optional response whose effectiveDate is the day of the rate used
+     */
+    Optional<OfficialRateResponseDto> getOfficialRateByCodeAndDate(String code, String date, boolean asOf);
+
     /**
      * Get latest rates for all currencies and compute buy/sell and 24h change.
      * @param margin margin fraction (e.g., 0.01 for ±1%)
@@ -96,13 +143,52 @@ public interface CurrencyService {
      */
     ConversionResponseDto convert(String from, String to, double amount);
 
+    /**
+     * Open a converter bound to the current dataset snapshot, for pricing many items against one rate set.
+     */
+    ConversionBatch openConversionBatch();
+
     /**
      * Get historical official rates for a currency code within [start, end].
      */
     java.util.List<HistoricalRatePointDto> getHistoryByCodeAndRange(String code, String start, String end);
 
+    /**
+     * Get historical official rates of several currencies within [start, end] on one shared date axis.
+     * Duplicate codes are returned once; an unknown code fails the whole request.
+     */
+    AlignedHistoryDto getAlignedHistoryByCodesAndRange(List<String> codes, String start, String end);
+
+    /**
+     * Same rates as {@link #getHistoryByCodeAndRange} as packed day and value columns.
+     */
+    HistorySeriesDto getHistorySeriesByCodeAndRange(String code, String start, String end);
+
+    /**
+     * Same points as {@link #getHistoryByCodeAndRange}, produced lazily so they can be written out one by one.
+     * The currency and dates are resolved eagerly, so an unknown code or bad date fails before anything is streamed.
+     */
+    Stream<HistoricalRatePointDto> streamHistoryByCodeAndRange(String code, String start, String end);
+
+    /**
+     * Get rolling statistics (moving averages, rolling standard deviation, returns, drawdown) of a currency's
+     * official rates within [start, end], over windows of the given number of published days.
+     */
+    RateStatsDto getRateStatsByCodeAndRange(String code, String start, String end, int window);
+
+    /**
+     * Get precomputed open/high/low/close/avg buckets for a currency code over the periods overlapping [start, end].
+     * Edge buckets cover their whole period, including days outside the range.
+     */
+    List<RateBucketDto> getHistoryRollupByCodeAndRange(String code, String start, String end, RollupInterval interval);
+
     /**
      * Compare two dates' official rates for a given currency.
      */
     CompareRatesResponseDto compareRates(String code, String fromDate, String toDate);
+
+    /**
+     * Compare two dates' official rates, with asOf using the latest rate on or before each date.
+     */
+    CompareRatesResponseDto compareRates(String code, String fromDate, String toDate, boolean asOf);
 }
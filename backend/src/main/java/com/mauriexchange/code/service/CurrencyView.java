@@ -0,0 +1,94 @@
+package com.mauriexchange.code.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.mauriexchange.code.store.CurrencyEntry;
+import com.mauriexchange.code.store.EpochDays;
+import com.mauriexchange.code.store.RateDetails;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * A currency projected on a {@link CurrencyProjection}, serialized straight from the snapshot columns.
+ * Only the requested fields of the requested rows are ever read or formatted, so no
+ * {@code CurrencyResponseDto} is built. Fields keep the order and format of {@code CurrencyResponseDto}.
+ */
+public final class CurrencyView implements JsonSerializable {
+
+    private final CurrencyEntry entry;
+    private final CurrencyProjection projection;
+    private final int fromIndex;
+    private final int toIndex;
+
+    /**
+     * @param fromIndex First embedded row of the currency's series
+     * @param toIndex End (exclusive) of the embedded rows
+     */
+    public CurrencyView(CurrencyEntry entry, CurrencyProjection projection, int fromIndex, int toIndex) {
+        this.entry = entry;
+        this.projection = projection;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+    }
+
+    /**
+     * Number of embedded rates.
+     */
+    public int rateCount() {
+        return projection.hasField(CurrencyProjection.EXCHANGE_RATES) ? toIndex - fromIndex : 0;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        if (projection.hasField(CurrencyProjection.ID)) writeNumber(gen, "id", entry.getId());
+        if (projection.hasField(CurrencyProjection.NAME_FR)) gen.writeStringField("nameFr", entry.getNameFr());
+        if (projection.hasField(CurrencyProjection.NAME_AR)) gen.writeStringField("nameAr", entry.getNameAr());
+        if (projection.hasField(CurrencyProjection.UNITY)) writeNumber(gen, "unity", entry.getUnity() != null ? entry.getUnity().longValue() : null);
+        if (projection.hasField(CurrencyProjection.CODE)) gen.writeStringField("code", entry.getCode());
+        if (projection.hasField(CurrencyProjection.CREATED_AT)) writeTimestamp(gen, provider, "createdAt", entry.getCreatedAt());
+        if (projection.hasField(CurrencyProjection.UPDATED_AT)) writeTimestamp(gen, provider, "updatedAt", entry.getUpdatedAt());
+        if (projection.hasField(CurrencyProjection.PUBLISHED_AT)) writeTimestamp(gen, provider, "publishedAt", entry.getPublishedAt());
+        if (projection.hasField(CurrencyProjection.EXCHANGE_RATES)) {
+            gen.writeArrayFieldStart("exchangeRates");
+            RateDetails details = entry.getDetails();
+            for (int i = fromIndex; i < toIndex; i++) {
+                gen.writeStartObject();
+                if (projection.hasRateField(CurrencyProjection.RATE_ID)) writeNumber(gen, "id", details.idAt(i));
+                if (projection.hasRateField(CurrencyProjection.RATE_DAY)) gen.writeStringField("day", EpochDays.format(entry.getSeries().dayAt(i)));
+                if (projection.hasRateField(CurrencyProjection.RATE_VALUE)) gen.writeStringField("value", details.valueTextAt(i));
+                if (projection.hasRateField(CurrencyProjection.RATE_CREATED_AT)) writeTimestamp(gen, provider, "createdAt", details.createdAt(i));
+                if (projection.hasRateField(CurrencyProjection.RATE_UPDATED_AT)) writeTimestamp(gen, provider, "updatedAt", details.updatedAt(i));
+                if (projection.hasRateField(CurrencyProjection.RATE_PUBLISHED_AT)) writeTimestamp(gen, provider, "publishedAt", details.publishedAt(i));
+                if (projection.hasRateField(CurrencyProjection.RATE_END_DATE)) gen.writeStringField("endDate", details.endDateAt(i));
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer)
+            throws IOException {
+        // Never serialized polymorphically
+        serialize(gen, provider);
+    }
+
+    private static void writeNumber(JsonGenerator gen, String name, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeNumberField(name, value);
+        }
+    }
+
+    private static void writeTimestamp(JsonGenerator gen, SerializerProvider provider, String name,
+                                       LocalDateTime value) throws IOException {
+        // Through the configured serializer, so timestamps look exactly like in CurrencyResponseDto
+        provider.defaultSerializeField(name, value, gen);
+    }
+}
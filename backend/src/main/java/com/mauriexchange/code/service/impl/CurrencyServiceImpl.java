@@ -1,90 +1,80 @@
 package com.mauriexchange.code.service.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mauriexchange.code.config.PaginationConfig;
+import com.mauriexchange.code.dto.AlignedHistoryDto;
+import com.mauriexchange.code.dto.CurrencyListItemDto;
 import com.mauriexchange.code.dto.CurrencyResponseDto;
 import com.mauriexchange.code.dto.PaginatedResponseDto;
 import com.mauriexchange.code.dto.OfficialRateResponseDto;
 import com.mauriexchange.code.dto.LatestRatesResponseDto;
 import com.mauriexchange.code.dto.ConversionResponseDto;
 import com.mauriexchange.code.dto.HistoricalRatePointDto;
+import com.mauriexchange.code.dto.HistorySeriesDto;
 import com.mauriexchange.code.dto.CompareRatesResponseDto;
-import com.mauriexchange.code.entity.Currency;
-import com.mauriexchange.code.entity.CurrencyData;
+import com.mauriexchange.code.dto.RateBucketDto;
+import com.mauriexchange.code.dto.RateStatsDto;
+import com.mauriexchange.code.exception.BadRequestException;
 import com.mauriexchange.code.exception.DataNotFoundException;
-import com.mauriexchange.code.exception.DataProcessingException;
+import com.mauriexchange.code.service.ConversionBatch;
+import com.mauriexchange.code.service.CurrencyProjection;
 import com.mauriexchange.code.service.CurrencyService;
+import com.mauriexchange.code.service.CurrencyView;
+import com.mauriexchange.code.store.CrossRateTable;
+import com.mauriexchange.code.store.CurrencyEntry;
+import com.mauriexchange.code.store.CurrencyKeyOrder;
+import com.mauriexchange.code.store.EpochDays;
+import com.mauriexchange.code.store.LatestRatesTable;
+import com.mauriexchange.code.store.RateDetails;
+import com.mauriexchange.code.store.RateRollup;
+import com.mauriexchange.code.store.RateSeries;
+import com.mauriexchange.code.store.RatesSnapshot;
+import com.mauriexchange.code.store.RatesSnapshotStore;
+import com.mauriexchange.code.store.RollingStats;
+import com.mauriexchange.code.store.RollupInterval;
+import com.mauriexchange.code.store.UndatedRates;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import jakarta.annotation.PostConstruct;
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "currency.service", description = "Time spent in CurrencyService methods")
 public class CurrencyServiceImpl implements CurrencyService {
     
-    private final PaginationConfig paginationConfig;
-    
-    @Value("${app.data.source.path}")
-    private String dataSourcePath;
-    
-    private CurrencyData currencyData;
-    private final ObjectMapper objectMapper = new ObjectMapper()
-            .registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
+    // Versions the cursor layout: "c1:<id>:<normalized code>"
+    private static final String CURSOR_PREFIX = "c1:";
     
-    @PostConstruct
-    public void init() {
-        loadDataFromFile();
-    }
-    
-    private void loadDataFromFile() {
-        try {
-            log.info("Loading currency data from: {}", dataSourcePath);
-            Path path = Paths.get(dataSourcePath);
-            
-            if (!Files.exists(path)) {
-                throw new DataProcessingException("Data source file not found: " + dataSourcePath);
-            }
-            
-            String jsonContent = Files.readString(path);
-            currencyData = objectMapper.readValue(jsonContent, CurrencyData.class);
-            
-            log.info("Successfully loaded {} currencies", 
-                    currencyData.getData() != null ? currencyData.getData().size() : 0);
-                    
-        } catch (IOException e) {
-            log.error("Error loading currency data: {}", e.getMessage(), e);
-            throw new DataProcessingException("Failed to load currency data", e);
-        }
-    }
+    private final PaginationConfig paginationConfig;
+    private final RatesSnapshotStore snapshotStore;
+    private final AtomicReference<LatestRatesCache> latestRatesCache = new AtomicReference<>();
     
     @Override
     public List<CurrencyResponseDto> getAllCurrencies() {
-        if (currencyData == null || currencyData.getData() == null) {
-            throw new DataNotFoundException("No currency data available");
-        }
+        RatesSnapshot snapshot = snapshotStore.current();
         
-        return currencyData.getData().stream()
+        return snapshot.currencies().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
     @Override
     public PaginatedResponseDto<CurrencyResponseDto> getAllCurrenciesPaginated(int page, int size) {
-        if (currencyData == null || currencyData.getData() == null) {
-            throw new DataNotFoundException("No currency data available");
-        }
+        RatesSnapshot snapshot = snapshotStore.current();
         
         // Validate and adjust page size
         int validatedSize = Math.min(size, paginationConfig.getMaxPageSize());
@@ -93,77 +83,64 @@ public class CurrencyServiceImpl implements CurrencyService {
         // Validate page number
         int validatedPage = Math.max(page, 0);
         
-        List<CurrencyResponseDto> allCurrencies = currencyData.getData().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        
-        return createPaginatedResponse(allCurrencies, validatedPage, validatedSize);
+        return createPaginatedResponse(snapshot, null, validatedPage, validatedSize);
+    }
+    
+    @Override
+    public PaginatedResponseDto<CurrencyResponseDto> getAllCurrenciesAfter(int size, String after) {
+        return createCursorPage(snapshotStore.current(), null, validatePageSize(size), after);
     }
     
     @Override
     public Optional<CurrencyResponseDto> getCurrencyById(Long id) {
-        if (currencyData == null || currencyData.getData() == null) {
-            return Optional.empty();
-        }
-        
-        return currencyData.getData().stream()
-                .filter(currency -> currency.getId().equals(id))
-                .findFirst()
+        return snapshotStore.current().findById(id)
                 .map(this::convertToDto);
     }
     
     @Override
     public Optional<CurrencyResponseDto> getCurrencyByCode(String code) {
-        if (currencyData == null || currencyData.getData() == null) {
-            return Optional.empty();
-        }
-        
-        return currencyData.getData().stream()
-                .filter(currency -> currency.getAttributes() != null && 
-                        currency.getAttributes().getCode() != null && 
-                        currency.getAttributes().getCode().equalsIgnoreCase(code))
-                .findFirst()
+        return snapshotStore.current().findByCode(code)
                 .map(this::convertToDto);
     }
     
+    @Override
+    public Optional<CurrencyView> getCurrencyByCode(String code, CurrencyProjection projection) {
+        return snapshotStore.current().findByCode(code).map(entry -> {
+            RateSeries series = entry.getSeries();
+            int from = 0;
+            int to = series.size();
+            switch (projection.getRates()) {
+                case NONE -> to = 0;
+                case LATEST -> from = Math.max(0, to - projection.getLatestCount());
+                case RANGE -> {
+                    int startDay = parseDay(projection.getStart());
+                    int endDay = parseDay(projection.getEnd());
+                    if (endDay < startDay) {
+                        throw new BadRequestException("'end' date must be on or after 'start' date");
+                    }
+                    from = series.lowerBound(startDay);
+                    to = Math.max(from, series.upperBound(endDay));
+                }
+                case ALL -> {
+                    // whole history
+                }
+            }
+            return new CurrencyView(entry, projection, from, to);
+        });
+    }
+    
     @Override
     public List<CurrencyResponseDto> getCurrenciesByName(String name) {
-        if (currencyData == null || currencyData.getData() == null) {
-            return List.of();
-        }
+        RatesSnapshot snapshot = snapshotStore.current();
         
-        String searchName = name.toLowerCase();
-        return currencyData.getData().stream()
-                .filter(currency -> {
-                    Currency.CurrencyAttributes attrs = currency.getAttributes();
-                    if (attrs == null) return false;
-                    
-                    return (attrs.getNameFr() != null && 
-                           attrs.getNameFr().toLowerCase().contains(searchName)) ||
-                           (attrs.getNameAr() != null && 
-                           attrs.getNameAr().toLowerCase().contains(searchName));
-                })
-                .map(this::convertToDto)
+        return IntStream.of(snapshot.searchIndex().search(name))
+                .mapToObj(i -> convertToDto(snapshot.currencies().get(i)))
                 .collect(Collectors.toList());
     }
     
     @Override
     public PaginatedResponseDto<CurrencyResponseDto> getCurrenciesByNamePaginated(String name, int page, int size) {
-        if (currencyData == null || currencyData.getData() == null) {
-            return PaginatedResponseDto.<CurrencyResponseDto>builder()
-                    .data(List.of())
-                    .metadata(PaginatedResponseDto.PaginationMetadata.builder()
-                            .page(page)
-                            .size(size)
-                            .totalElements(0)
-                            .totalPages(0)
-                            .hasNext(false)
-                            .hasPrevious(false)
-                            .isFirst(true)
-                            .isLast(true)
-                            .build())
-                    .build();
-        }
+        RatesSnapshot snapshot = snapshotStore.current();
         
         // Validate and adjust page size
         int validatedSize = Math.min(size, paginationConfig.getMaxPageSize());
@@ -172,146 +149,203 @@ public class CurrencyServiceImpl implements CurrencyService {
         // Validate page number
         int validatedPage = Math.max(page, 0);
         
-        String searchName = name.toLowerCase();
-        List<CurrencyResponseDto> filteredCurrencies = currencyData.getData().stream()
-                .filter(currency -> {
-                    Currency.CurrencyAttributes attrs = currency.getAttributes();
-                    if (attrs == null) return false;
-                    
-                    return (attrs.getNameFr() != null && 
-                           attrs.getNameFr().toLowerCase().contains(searchName)) ||
-                           (attrs.getNameAr() != null && 
-                           attrs.getNameAr().toLowerCase().contains(searchName));
-                })
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        
-        return createPaginatedResponse(filteredCurrencies, validatedPage, validatedSize);
+        int[] matches = snapshot.searchIndex().search(name);
+        return createPaginatedResponse(snapshot, matches, validatedPage, validatedSize);
     }
     
     @Override
-    public List<CurrencyResponseDto.ExchangeRateDto> getLatestExchangeRates(Long currencyId, int limit) {
-        Optional<CurrencyResponseDto> currency = getCurrencyById(currencyId);
-        if (currency.isEmpty()) {
-            throw new DataNotFoundException("Currency not found with ID: " + currencyId);
+    public PaginatedResponseDto<CurrencyResponseDto> getCurrenciesByNameAfter(String name, int size, String after) {
+        RatesSnapshot snapshot = snapshotStore.current();
+        return createCursorPage(snapshot, snapshot.searchIndex().search(name), validatePageSize(size), after);
+    }
+    
+    @Override
+    public List<CurrencyListItemDto> suggestCurrencies(String query, int limit) {
+        RatesSnapshot snapshot = snapshotStore.current();
+        int[] matches = snapshot.searchIndex().suggest(query, limit);
+        List<CurrencyListItemDto> items = new ArrayList<>(matches.length);
+        for (int i : matches) {
+            CurrencyEntry entry = snapshot.currencies().get(i);
+            items.add(CurrencyListItemDto.builder()
+                    .code(entry.getCode())
+                    .nameFr(entry.getNameFr())
+                    .nameAr(entry.getNameAr())
+                    .unity(entry.getUnity())
+                    .build());
         }
+        return items;
+    }
+    
+    @Override
+    public List<CurrencyResponseDto.ExchangeRateDto> getLatestExchangeRates(Long currencyId, int limit) {
+        CurrencyEntry entry = snapshotStore.current().findById(currencyId)
+                .orElseThrow(() -> new DataNotFoundException("Currency not found with ID: " + currencyId));
         
-        List<CurrencyResponseDto.ExchangeRateDto> rates = currency.get().getExchangeRates();
-        if (rates == null || rates.isEmpty()) {
-            return List.of();
+        // Rows are stored oldest first, so the latest ones are a reversed tail slice
+        int size = entry.getSeries().size();
+        int count = Math.min(Math.max(limit, 0), size);
+        List<CurrencyResponseDto.ExchangeRateDto> result = new ArrayList<>(count);
+        for (int i = size - 1; i >= size - count; i--) {
+            result.add(convertExchangeRateToDto(entry, i));
         }
-        
-        return rates.stream()
-                .sorted((r1, r2) -> r2.getDay().compareTo(r1.getDay()))
-                .limit(limit)
-                .collect(Collectors.toList());
+        return result;
     }
     
     @Override
     public List<CurrencyResponseDto.ExchangeRateDto> getExchangeRatesByDateRange(
             Long currencyId, String startDate, String endDate) {
-        Optional<CurrencyResponseDto> currency = getCurrencyById(currencyId);
-        if (currency.isEmpty()) {
-            throw new DataNotFoundException("Currency not found with ID: " + currencyId);
-        }
+        CurrencyEntry entry = snapshotStore.current().findById(currencyId)
+                .orElseThrow(() -> new DataNotFoundException("Currency not found with ID: " + currencyId));
         
-        List<CurrencyResponseDto.ExchangeRateDto> rates = currency.get().getExchangeRates();
-        if (rates == null || rates.isEmpty()) {
+        RateSeries series = entry.getSeries();
+        int from = series.lowerBound(parseDay(startDate));
+        int to = series.upperBound(parseDay(endDate));
+        if (from >= to) {
             return List.of();
         }
         
-        return rates.stream()
-                .filter(rate -> {
-                    String day = rate.getDay();
-                    return day != null && day.compareTo(startDate) >= 0 && day.compareTo(endDate) <= 0;
-                })
-                .sorted((r1, r2) -> r1.getDay().compareTo(r2.getDay()))
-                .collect(Collectors.toList());
+        List<CurrencyResponseDto.ExchangeRateDto> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(convertExchangeRateToDto(entry, i));
+        }
+        return result;
     }
 
     @Override
     public Optional<OfficialRateResponseDto> getOfficialRateByCodeAndDate(String code, String date) {
-        Optional<CurrencyResponseDto> currencyOpt = getCurrencyByCode(code);
-        if (currencyOpt.isEmpty()) {
+        return getOfficialRateByCodeAndDate(code, date, false);
+    }
+
+    @Override
+    public Optional<OfficialRateResponseDto> getOfficialRateByCodeAndDate(String code, String date, boolean asOf) {
+        Optional<CurrencyEntry> entryOpt = snapshotStore.current().findByCode(code);
+        if (entryOpt.isEmpty()) {
             return Optional.empty();
         }
 
-        List<CurrencyResponseDto.ExchangeRateDto> rates = currencyOpt.get().getExchangeRates();
-        if (rates == null || rates.isEmpty()) {
+        return findRate(entryOpt.get(), date, asOf)
+                .map(rate -> OfficialRateResponseDto.builder()
+                        .code(entryOpt.get().getCode())
+                        .officialRate(rate.value())
+                        .date(date)
+                        .effectiveDate(rate.date())
+                        .source("CACHE")
+                        .build());
+    }
+
+    /**
+     * Rate at the exact date, or with asOf the latest valid rate on or before it (one binary search).
+     */
+    private Optional<DatedRate> findRate(CurrencyEntry entry, String date, boolean asOf) {
+        if (!asOf) {
+            return findExactRateValue(entry, date).map(value -> new DatedRate(value, date));
+        }
+        int day;
+        try {
+            day = EpochDays.parse(date);
+        } catch (DateTimeParseException ex) {
             return Optional.empty();
         }
 
-        return rates.stream()
-                .filter(r -> date.equals(r.getDay()))
-                .findFirst()
-                .flatMap(r -> {
-                    try {
-                        Double value = r.getValue() != null ? Double.parseDouble(r.getValue()) : null;
-                        if (value == null) return Optional.empty();
-                        return Optional.of(OfficialRateResponseDto.builder()
-                                .code(currencyOpt.get().getCode())
-                                .officialRate(value)
-                                .date(date)
-                                .source("CACHE")
-                                .build());
-                    } catch (NumberFormatException ex) {
-                        log.warn("Unable to parse rate value '{}' for {} on {}", r.getValue(), code, date);
-                        return Optional.empty();
-                    }
-                });
+        RateSeries series = entry.getSeries();
+        int idx = series.floorValidIndex(day);
+        if (idx < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new DatedRate(series.valueAt(idx), EpochDays.format(series.dayAt(idx))));
+    }
+
+    private record DatedRate(double value, String date) {}
+
+    private Optional<Double> findExactRateValue(CurrencyEntry entry, String date) {
+        int day;
+        try {
+            day = EpochDays.parse(date);
+        } catch (DateTimeParseException ex) {
+            return Optional.empty();
+        }
+
+        RateSeries series = entry.getSeries();
+        int idx = series.indexOf(day);
+        if (idx < 0) {
+            return Optional.empty();
+        }
+        double value = series.valueAt(idx);
+        if (Double.isNaN(value)) {
+            log.warn("Unable to parse rate value for {} on {}", entry.getCode(), date);
+            return Optional.empty();
+        }
+        return Optional.of(value);
+    }
+
+    private static int parseDay(String date) {
+        try {
+            return EpochDays.parse(date);
+        } catch (DateTimeParseException ex) {
+            throw new BadRequestException("Invalid date format. Expected YYYY-MM-DD", ex);
+        }
     }
     
-    private CurrencyResponseDto convertToDto(Currency currency) {
-        List<CurrencyResponseDto.ExchangeRateDto> exchangeRates = null;
-        Currency.CurrencyAttributes attrs = currency.getAttributes();
-        
-        if (attrs != null && attrs.getMoneyTodayChanges() != null && 
-            attrs.getMoneyTodayChanges().getData() != null) {
-            exchangeRates = attrs.getMoneyTodayChanges().getData().stream()
-                    .map(this::convertExchangeRateToDto)
-                    .collect(Collectors.toList());
+    private CurrencyResponseDto convertToDto(CurrencyEntry entry) {
+        int size = entry.getSeries().size();
+        UndatedRates undated = entry.getUndated();
+        List<CurrencyResponseDto.ExchangeRateDto> exchangeRates = new ArrayList<>(size + undated.size());
+        for (int i = 0; i < size; i++) {
+            exchangeRates.add(convertExchangeRateToDto(entry, i));
+        }
+        // Rows without a usable day follow, with the day as published
+        for (int i = 0; i < undated.size(); i++) {
+            exchangeRates.add(convertExchangeRateToDto(undated.details(), undated.dayTexts().get(i), i));
         }
         
         return CurrencyResponseDto.builder()
-                .id(currency.getId())
-                .nameFr(attrs != null ? attrs.getNameFr() : null)
-                .nameAr(attrs != null ? attrs.getNameAr() : null)
-                .unity(attrs != null ? attrs.getUnity() : null)
-                .code(attrs != null ? attrs.getCode() : null)
-                .createdAt(attrs != null ? attrs.getCreatedAt() : null)
-                .updatedAt(attrs != null ? attrs.getUpdatedAt() : null)
-                .publishedAt(attrs != null ? attrs.getPublishedAt() : null)
+                .id(entry.getId())
+                .nameFr(entry.getNameFr())
+                .nameAr(entry.getNameAr())
+                .unity(entry.getUnity())
+                .code(entry.getCode())
+                .createdAt(entry.getCreatedAt())
+                .updatedAt(entry.getUpdatedAt())
+                .publishedAt(entry.getPublishedAt())
                 .exchangeRates(exchangeRates)
                 .build();
     }
     
-    private CurrencyResponseDto.ExchangeRateDto convertExchangeRateToDto(
-            Currency.ExchangeRate exchangeRate) {
-        Currency.ExchangeRateAttributes attrs = exchangeRate.getAttributes();
-        
+    private CurrencyResponseDto.ExchangeRateDto convertExchangeRateToDto(CurrencyEntry entry, int index) {
+        return convertExchangeRateToDto(entry.getDetails(), EpochDays.format(entry.getSeries().dayAt(index)), index);
+    }
+
+    private CurrencyResponseDto.ExchangeRateDto convertExchangeRateToDto(RateDetails details, String day, int index) {
         return CurrencyResponseDto.ExchangeRateDto.builder()
-                .id(exchangeRate.getId())
-                .day(attrs.getDay())
-                .value(attrs.getValue())
-                .createdAt(attrs.getCreatedAt())
-                .updatedAt(attrs.getUpdatedAt())
-                .publishedAt(attrs.getPublishedAt())
-                .endDate(attrs.getEndDate())
+                .id(details.idAt(index))
+                .day(day)
+                .value(details.valueTextAt(index))
+                .createdAt(details.createdAt(index))
+                .updatedAt(details.updatedAt(index))
+                .publishedAt(details.publishedAt(index))
+                .endDate(details.endDateAt(index))
                 .build();
     }
 
+    /**
+     * One page of currencies, converting only the entries on that page.
+     * @param positions Indexes into the snapshot's currencies in result order, or null for all of them
+     */
     private PaginatedResponseDto<CurrencyResponseDto> createPaginatedResponse(
-            List<CurrencyResponseDto> allData, int page, int size) {
+            RatesSnapshot snapshot, int[] positions, int page, int size) {
         
-        long totalElements = allData.size();
+        List<CurrencyEntry> currencies = snapshot.currencies();
+        int totalElements = positions != null ? positions.length : currencies.size();
         int totalPages = (int) Math.ceil((double) totalElements / size);
         
-        // Calculate start and end indices
-        int startIndex = page * size;
-        int endIndex = Math.min(startIndex + size, (int) totalElements);
+        // Calculate start and end indices; a page past the end is empty
+        long startIndex = Math.min((long) page * size, totalElements);
+        int endIndex = (int) Math.min(startIndex + size, totalElements);
         
-        // Get the page data
-        List<CurrencyResponseDto> pageData = allData.subList(startIndex, endIndex);
+        List<CurrencyResponseDto> pageData = new ArrayList<>(endIndex - (int) startIndex);
+        for (int i = (int) startIndex; i < endIndex; i++) {
+            pageData.add(convertToDto(currencies.get(positions != null ? positions[i] : i)));
+        }
         
         // Build metadata
         PaginatedResponseDto.PaginationMetadata metadata = PaginatedResponseDto.PaginationMetadata.builder()
@@ -322,7 +356,7 @@ public class CurrencyServiceImpl implements CurrencyService {
                 .hasNext(page < totalPages - 1)
                 .hasPrevious(page > 0)
                 .isFirst(page == 0)
-                .isLast(page == totalPages - 1 || totalPages == 0)
+                .isLast(page >= totalPages - 1)
                 .build();
         
         return PaginatedResponseDto.<CurrencyResponseDto>builder()
@@ -330,197 +364,429 @@ public class CurrencyServiceImpl implements CurrencyService {
                 .metadata(metadata)
                 .build();
     }
+    
+    /**
+     * The page of currencies following a cursor in key order, converting only that page.
+     * @param matches Indexes of the currencies to page through, or null for all of them
+     */
+    private PaginatedResponseDto<CurrencyResponseDto> createCursorPage(
+            RatesSnapshot snapshot, int[] matches, int size, String after) {
+        
+        List<CurrencyEntry> currencies = snapshot.currencies();
+        CurrencyKeyOrder order = snapshot.keyOrder();
+        boolean[] included = null;
+        if (matches != null) {
+            included = new boolean[currencies.size()];
+            for (int i : matches) {
+                included[i] = true;
+            }
+        }
+        int totalElements = matches != null ? matches.length : currencies.size();
+        
+        int rank = after == null || after.isBlank() ? 0 : decodeCursor(order, after);
+        List<CurrencyResponseDto> pageData = new ArrayList<>(Math.min(size, totalElements));
+        CurrencyEntry last = null;
+        boolean hasNext = false;
+        for (; rank < order.size(); rank++) {
+            int position = order.positionAt(rank);
+            if (included != null && !included[position]) {
+                continue;
+            }
+            if (pageData.size() == size) {
+                hasNext = true;
+                break;
+            }
+            last = currencies.get(position);
+            pageData.add(convertToDto(last));
+        }
+        
+        PaginatedResponseDto.PaginationMetadata metadata = PaginatedResponseDto.PaginationMetadata.builder()
+                .size(size)
+                .totalElements(totalElements)
+                .totalPages((int) Math.ceil((double) totalElements / size))
+                .hasNext(hasNext)
+                .hasPrevious(after != null && !after.isBlank())
+                .isFirst(after == null || after.isBlank())
+                .isLast(!hasNext)
+                .nextCursor(hasNext ? encodeCursor(last) : null)
+                .build();
+        
+        return PaginatedResponseDto.<CurrencyResponseDto>builder()
+                .data(pageData)
+                .metadata(metadata)
+                .build();
+    }
+    
+    private int validatePageSize(int size) {
+        return Math.max(Math.min(size, paginationConfig.getMaxPageSize()), 1);
+    }
+    
+    /**
+     * Opaque cursor: the key of the last currency of a page, so that the next page starts after it
+     * whatever the snapshot being served.
+     */
+    private static String encodeCursor(CurrencyEntry entry) {
+        String key = CURSOR_PREFIX + CurrencyKeyOrder.id(entry) + ":" + CurrencyKeyOrder.code(entry);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static int decodeCursor(CurrencyKeyOrder order, String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!key.startsWith(CURSOR_PREFIX)) {
+                throw new BadRequestException("Invalid cursor: " + cursor);
+            }
+            int separator = key.indexOf(':', CURSOR_PREFIX.length());
+            long id = Long.parseLong(key.substring(CURSOR_PREFIX.length(), separator));
+            return order.firstAfter(key.substring(separator + 1), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
 
     @Override
     public LatestRatesResponseDto getLatestRates(double margin) {
-        if (currencyData == null || currencyData.getData() == null) {
-            throw new DataNotFoundException("No currency data available");
-        }
-
-        java.util.concurrent.atomic.AtomicReference<String> globalLatestDate = new java.util.concurrent.atomic.AtomicReference<>(null);
-
-        List<LatestRatesResponseDto.Item> items = currencyData.getData().stream()
-                .map(cur -> {
-                    Currency.CurrencyAttributes attrs = cur.getAttributes();
-                    List<CurrencyResponseDto.ExchangeRateDto> rates = null;
-                    if (attrs != null && attrs.getMoneyTodayChanges() != null &&
-                            attrs.getMoneyTodayChanges().getData() != null) {
-                        rates = attrs.getMoneyTodayChanges().getData().stream()
-                                .map(this::convertExchangeRateToDto)
-                                .collect(java.util.stream.Collectors.toList());
-                    }
-
-                    if (rates == null || rates.isEmpty()) {
-                        return LatestRatesResponseDto.Item.builder()
-                                .code(attrs != null ? attrs.getCode() : null)
-                                .name(attrs != null ? attrs.getNameFr() : null)
-                                .officialRate(null)
-                                .buyRate(null)
-                                .sellRate(null)
-                                .change24h(null)
-                                .build();
-                    }
-
-                    // Find latest and previous entries by day
-                    CurrencyResponseDto.ExchangeRateDto latest = rates.stream()
-                            .max(java.util.Comparator.comparing(CurrencyResponseDto.ExchangeRateDto::getDay))
-                            .orElse(null);
-                    String latestDay = latest != null ? latest.getDay() : null;
-
-                    if (latestDay != null) {
-                        globalLatestDate.updateAndGet(prev -> (prev == null || latestDay.compareTo(prev) > 0) ? latestDay : prev);
-                    }
-
-                    Double latestVal = null;
-                    if (latest != null && latest.getValue() != null) {
-                        try { latestVal = Double.parseDouble(latest.getValue()); } catch (NumberFormatException ignored) {}
-                    }
+        RatesSnapshot snapshot = snapshotStore.current();
 
-                    // previous: max day less than latestDay
-                    Double prevVal = null;
-                    if (latestDay != null) {
-                        prevVal = rates.stream()
-                                .filter(r -> r.getDay() != null && r.getDay().compareTo(latestDay) < 0)
-                                .max(java.util.Comparator.comparing(CurrencyResponseDto.ExchangeRateDto::getDay))
-                                .map(r -> {
-                                    try { return r.getValue() != null ? Double.parseDouble(r.getValue()) : null; }
-                                    catch (NumberFormatException e) { return null; }
-                                })
-                                .orElse(null);
-                    }
-
-                    Double buy = latestVal != null ? latestVal * (1 - margin) : null;
-                    Double sell = latestVal != null ? latestVal * (1 + margin) : null;
+        // The table only changes with the snapshot, so a response for the same margin can be reused
+        LatestRatesCache cached = latestRatesCache.get();
+        if (cached != null && cached.snapshot() == snapshot && cached.margin() == margin) {
+            return cached.response();
+        }
 
-                    String change = null;
-                    if (latestVal != null && prevVal != null && prevVal != 0.0) {
-                        double pct = ((latestVal - prevVal) / prevVal) * 100.0;
-                        change = String.format("%+,.2f%%", pct);
-                    }
+        LatestRatesTable table = snapshot.latestRates();
+        List<LatestRatesResponseDto.Item> items = new ArrayList<>(table.size());
+        for (int i = 0; i < table.size(); i++) {
+            double latest = table.latestValueAt(i);
+            boolean hasLatest = !Double.isNaN(latest);
+            items.add(LatestRatesResponseDto.Item.builder()
+                    .code(table.codeAt(i))
+                    .name(table.nameAt(i))
+                    .officialRate(hasLatest ? latest : null)
+                    .buyRate(hasLatest ? latest * (1 - margin) : null)
+                    .sellRate(hasLatest ? latest * (1 + margin) : null)
+                    .change24h(table.changeAt(i))
+                    .build());
+        }
 
-                    return LatestRatesResponseDto.Item.builder()
-                            .code(attrs != null ? attrs.getCode() : null)
-                            .name(attrs != null ? attrs.getNameFr() : null)
-                            .officialRate(latestVal)
-                            .buyRate(buy)
-                            .sellRate(sell)
-                            .change24h(change)
-                            .build();
-                })
-                .collect(java.util.stream.Collectors.toList());
-
-        // If no rates had any dates, fallback to null
-        return LatestRatesResponseDto.builder()
-                .date(globalLatestDate.get())
+        LatestRatesResponseDto response = LatestRatesResponseDto.builder()
+                .date(table.getLatestDate())
                 .data(items)
                 .build();
+        latestRatesCache.set(new LatestRatesCache(snapshot, margin, response));
+        return response;
     }
 
-    private Optional<RateOnDate> findLatestRateForCode(String code) {
-        Optional<CurrencyResponseDto> currencyOpt = getCurrencyByCode(code);
-        if (currencyOpt.isEmpty()) return Optional.empty();
-        List<CurrencyResponseDto.ExchangeRateDto> rates = currencyOpt.get().getExchangeRates();
-        if (rates == null || rates.isEmpty()) return Optional.empty();
-        return rates.stream()
-                .filter(r -> r.getDay() != null && r.getValue() != null)
-                .max(java.util.Comparator.comparing(CurrencyResponseDto.ExchangeRateDto::getDay))
-                .flatMap(r -> {
-                    try {
-                        Double v = Double.parseDouble(r.getValue());
-                        return Optional.of(new RateOnDate(v, r.getDay()));
-                    } catch (NumberFormatException ex) {
-                        return Optional.empty();
-                    }
-                });
-    }
-
-    private record RateOnDate(Double value, String date) {}
+    private record LatestRatesCache(RatesSnapshot snapshot, double margin, LatestRatesResponseDto response) {}
 
     @Override
     public ConversionResponseDto convert(String from, String to, double amount) {
-        String fromCode = from.toUpperCase();
-        String toCode = to.toUpperCase();
+        return convert(snapshotStore.current().crossRates(), from, to, amount);
+    }
+
+    @Override
+    public ConversionBatch openConversionBatch() {
+        RatesSnapshot snapshot = snapshotStore.current();
+        return (from, to, amount, date) -> date == null
+                ? convert(snapshot.crossRates(), from, to, amount)
+                : convertOnDate(snapshot, from, to, amount, date);
+    }
 
-        // MRU is the base unit in our dataset
-        Optional<RateOnDate> fromRateOpt = "MRU".equalsIgnoreCase(fromCode) ?
-                Optional.of(new RateOnDate(1.0, null)) : findLatestRateForCode(fromCode);
-        Optional<RateOnDate> toRateOpt = "MRU".equalsIgnoreCase(toCode) ?
-                Optional.of(new RateOnDate(1.0, null)) : findLatestRateForCode(toCode);
+    private ConversionResponseDto convert(CrossRateTable crossRates, String from, String to, double amount) {
+        String fromCode = RatesSnapshot.normalizeCode(from);
+        String toCode = RatesSnapshot.normalizeCode(to);
 
-        if (fromRateOpt.isEmpty()) {
+        int fromIdx = crossRates.indexOf(fromCode);
+        int toIdx = crossRates.indexOf(toCode);
+        if (fromIdx < 0) {
             throw new DataNotFoundException("No latest official rate found for currency: " + fromCode);
         }
-        if (toRateOpt.isEmpty()) {
+        if (toIdx < 0) {
             throw new DataNotFoundException("No latest official rate found for currency: " + toCode);
         }
 
-        double rateFromMRU = fromRateOpt.get().value(); // MRU per 1 from
-        double rateToMRU = toRateOpt.get().value();     // MRU per 1 to
+        // Effective rate from -> to, with the later of the two latest publication dates
+        double rate = crossRates.rate(fromIdx, toIdx);
 
-        // Effective rate from -> to
-        double rate = rateFromMRU / rateToMRU;
-        double converted = amount * rate;
+        return ConversionResponseDto.builder()
+                .from(fromCode)
+                .to(toCode)
+                .amount(amount)
+                .rate(rate)
+                .convertedAmount(amount * rate)
+                .date(crossRates.date(fromIdx, toIdx))
+                .build();
+    }
 
-        // pick a reference date: max of the two when present
-        String date = null;
-        String df = fromRateOpt.get().date();
-        String dt = toRateOpt.get().date();
-        if (df != null && dt != null) {
-            date = df.compareTo(dt) >= 0 ? df : dt;
-        } else if (df != null) {
-            date = df;
-        } else if (dt != null) {
-            date = dt;
-        }
+    private ConversionResponseDto convertOnDate(RatesSnapshot snapshot, String from, String to, double amount, String date) {
+        parseDay(date);
+        String fromCode = RatesSnapshot.normalizeCode(from);
+        String toCode = RatesSnapshot.normalizeCode(to);
+
+        double rate = rateOnDate(snapshot, fromCode, date) / rateOnDate(snapshot, toCode, date);
 
         return ConversionResponseDto.builder()
                 .from(fromCode)
                 .to(toCode)
                 .amount(amount)
                 .rate(rate)
-                .convertedAmount(converted)
+                .convertedAmount(amount * rate)
                 .date(date)
                 .build();
     }
 
+    private double rateOnDate(RatesSnapshot snapshot, String normalizedCode, String date) {
+        if (CrossRateTable.BASE_CODE.equals(normalizedCode)) {
+            return 1.0;
+        }
+        CurrencyEntry entry = snapshot.findByNormalizedCode(normalizedCode)
+                .orElseThrow(() -> new DataNotFoundException("Currency not found with code: " + normalizedCode));
+        return findExactRateValue(entry, date)
+                .orElseThrow(() -> new DataNotFoundException(
+                        "Official rate not found for code: " + normalizedCode + " at date: " + date));
+    }
+
     @Override
     public java.util.List<HistoricalRatePointDto> getHistoryByCodeAndRange(String code, String start, String end) {
-        Optional<CurrencyResponseDto> currencyOpt = getCurrencyByCode(code);
-        if (currencyOpt.isEmpty()) {
-            throw new DataNotFoundException("Currency not found with code: " + code);
-        }
+        CurrencyEntry entry = snapshotStore.current().findByCode(code)
+                .orElseThrow(() -> new DataNotFoundException("Currency not found with code: " + code));
 
-        List<CurrencyResponseDto.ExchangeRateDto> rates = currencyOpt.get().getExchangeRates();
-        if (rates == null || rates.isEmpty()) {
+        RateSeries series = entry.getSeries();
+        int from = series.lowerBound(parseDay(start));
+        int to = series.upperBound(parseDay(end));
+        if (from >= to) {
             return java.util.List.of();
         }
 
-        return rates.stream()
-                .filter(r -> r.getDay() != null && r.getDay().compareTo(start) >= 0 && r.getDay().compareTo(end) <= 0)
-                .sorted(java.util.Comparator.comparing(CurrencyResponseDto.ExchangeRateDto::getDay))
-                .map(r -> {
-                    Double val = null;
-                    try {
-                        val = r.getValue() != null ? Double.parseDouble(r.getValue()) : null;
-                    } catch (NumberFormatException ignored) {}
-                    return HistoricalRatePointDto.builder()
-                            .date(r.getDay())
-                            .officialRate(val)
-                            .build();
-                })
-                .collect(java.util.stream.Collectors.toList());
+        List<HistoricalRatePointDto> points = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            points.add(convertHistoryPointToDto(series, i));
+        }
+        return points;
+    }
+
+    @Override
+    public AlignedHistoryDto getAlignedHistoryByCodesAndRange(List<String> codes, String start, String end) {
+        RatesSnapshot snapshot = snapshotStore.current();
+        int startDay = parseDay(start);
+        int endDay = parseDay(end);
+
+        Map<String, CurrencyEntry> entries = new LinkedHashMap<>();
+        for (String code : codes) {
+            CurrencyEntry entry = snapshot.findByCode(code)
+                    .orElseThrow(() -> new DataNotFoundException("Currency not found with code: " + code));
+            entries.putIfAbsent(RatesSnapshot.normalizeCode(code), entry);
+        }
+
+        int k = entries.size();
+        RateSeries[] series = new RateSeries[k];
+        int[] next = new int[k];
+        int[] to = new int[k];
+        int capacity = 0;
+        int c = 0;
+        for (CurrencyEntry entry : entries.values()) {
+            series[c] = entry.getSeries();
+            next[c] = series[c].lowerBound(startDay);
+            to[c] = Math.max(next[c], series[c].upperBound(endDay));
+            capacity += to[c] - next[c];
+            c++;
+        }
+
+        // k-way merge of the sorted ranges into the date axis: each row is visited once, and a day
+        // published by several currencies becomes one axis entry
+        int[] axis = new int[capacity];
+        int[] cursor = next.clone();
+        int rows = 0;
+        while (true) {
+            int day = Integer.MAX_VALUE;
+            for (c = 0; c < k; c++) {
+                if (cursor[c] < to[c]) {
+                    day = Math.min(day, series[c].dayAt(cursor[c]));
+                }
+            }
+            if (day == Integer.MAX_VALUE) {
+                break;
+            }
+            axis[rows++] = day;
+            for (c = 0; c < k; c++) {
+                while (cursor[c] < to[c] && series[c].dayAt(cursor[c]) == day) {
+                    cursor[c]++;
+                }
+            }
+        }
+
+        // Columns are sized by the axis and filled one currency at a time. Same-day duplicates keep the
+        // first row, as in date lookups.
+        List<String> dates = new ArrayList<>(rows);
+        for (int r = 0; r < rows; r++) {
+            dates.add(EpochDays.format(axis[r]));
+        }
+        Map<String, Double[]> rates = new LinkedHashMap<>();
+        c = 0;
+        for (CurrencyEntry entry : entries.values()) {
+            Double[] column = new Double[rows];
+            int r = 0;
+            for (int i = next[c]; i < to[c]; i++) {
+                int day = series[c].dayAt(i);
+                if (i > next[c] && series[c].dayAt(i - 1) == day) {
+                    continue;
+                }
+                while (axis[r] < day) {
+                    r++;
+                }
+                double value = series[c].valueAt(i);
+                column[r] = Double.isNaN(value) ? null : value;
+            }
+            rates.put(entry.getCode(), column);
+            c++;
+        }
+        return AlignedHistoryDto.builder()
+                .start(start)
+                .end(end)
+                .dates(dates)
+                .rates(rates)
+                .build();
+    }
+
+    @Override
+    public HistorySeriesDto getHistorySeriesByCodeAndRange(String code, String start, String end) {
+        CurrencyEntry entry = snapshotStore.current().findByCode(code)
+                .orElseThrow(() -> new DataNotFoundException("Currency not found with code: " + code));
+
+        RateSeries series = entry.getSeries();
+        int from = series.lowerBound(parseDay(start));
+        int to = Math.max(from, series.upperBound(parseDay(end)));
+        return HistorySeriesDto.builder()
+                .code(entry.getCode())
+                .days(series.copyDays(from, to))
+                .officialRates(series.copyValues(from, to))
+                .build();
     }
 
-    private Optional<Double> findExactRateValue(String code, String date) {
-        return getOfficialRateByCodeAndDate(code, date).map(OfficialRateResponseDto::getOfficialRate);
+    @Override
+    public Stream<HistoricalRatePointDto> streamHistoryByCodeAndRange(String code, String start, String end) {
+        CurrencyEntry entry = snapshotStore.current().findByCode(code)
+                .orElseThrow(() -> new DataNotFoundException("Currency not found with code: " + code));
+
+        RateSeries series = entry.getSeries();
+        int from = series.lowerBound(parseDay(start));
+        int to = series.upperBound(parseDay(end));
+        return IntStream.range(from, Math.max(from, to)).mapToObj(i -> convertHistoryPointToDto(series, i));
+    }
+
+    @Override
+    public RateStatsDto getRateStatsByCodeAndRange(String code, String start, String end, int window) {
+        CurrencyEntry entry = snapshotStore.current().findByCode(code)
+                .orElseThrow(() -> new DataNotFoundException("Currency not found with code: " + code));
+
+        RateSeries series = entry.getSeries();
+        RollingStats stats = RollingStats.compute(series,
+                series.lowerBound(parseDay(start)), series.upperBound(parseDay(end)), window);
+        int n = stats.size();
+        List<String> dates = new ArrayList<>(n);
+        Double[] values = new Double[n];
+        Double[] sma = new Double[n];
+        Double[] ema = new Double[n];
+        Double[] stddev = new Double[n];
+        Double[] returns = new Double[n];
+        Double[] drawdown = new Double[n];
+        for (int i = 0; i < n; i++) {
+            dates.add(EpochDays.format(stats.dayAt(i)));
+            values[i] = stats.valueAt(i);
+            sma[i] = orNull(stats.smaAt(i));
+            ema[i] = orNull(stats.emaAt(i));
+            stddev[i] = orNull(stats.stddevAt(i));
+            returns[i] = orNull(stats.returnAt(i));
+            drawdown[i] = orNull(stats.drawdownAt(i));
+        }
+
+        RateStatsDto.Summary.SummaryBuilder summary = RateStatsDto.Summary.builder().count(n);
+        if (n > 0) {
+            double first = stats.valueAt(0);
+            double last = stats.valueAt(n - 1);
+            summary.first(first)
+                    .last(last)
+                    .change(first != 0 ? last / first - 1 : null)
+                    .min(stats.min())
+                    .minDate(EpochDays.format(stats.minDay()))
+                    .max(stats.max())
+                    .maxDate(EpochDays.format(stats.maxDay()))
+                    .mean(stats.mean())
+                    .volatility(orNull(stats.volatility()))
+                    .maxDrawdown(orNull(stats.maxDrawdown()))
+                    .maxDrawdownPeakDate(EpochDays.format(stats.peakDay()))
+                    .maxDrawdownTroughDate(EpochDays.format(stats.troughDay()));
+        }
+        return RateStatsDto.builder()
+                .code(entry.getCode())
+                .start(start)
+                .end(end)
+                .window(window)
+                .summary(summary.build())
+                .dates(dates)
+                .values(values)
+                .sma(sma)
+                .ema(ema)
+                .stddev(stddev)
+                .returns(returns)
+                .drawdown(drawdown)
+                .build();
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    @Override
+    public List<RateBucketDto> getHistoryRollupByCodeAndRange(String code, String start, String end, RollupInterval interval) {
+        RatesSnapshot snapshot = snapshotStore.current();
+        CurrencyEntry entry = snapshot.findByCode(code)
+                .orElseThrow(() -> new DataNotFoundException("Currency not found with code: " + code));
+
+        RateRollup rollup = snapshot.rollup(entry, interval);
+        int from = rollup.firstEndingOnOrAfter(parseDay(start));
+        int to = rollup.firstStartingAfter(parseDay(end));
+        if (from >= to) {
+            return List.of();
+        }
+
+        List<RateBucketDto> buckets = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            buckets.add(RateBucketDto.builder()
+                    .start(EpochDays.format(rollup.startDayAt(i)))
+                    .end(EpochDays.format(rollup.endDayAt(i)))
+                    .open(rollup.openAt(i))
+                    .high(rollup.highAt(i))
+                    .low(rollup.lowAt(i))
+                    .close(rollup.closeAt(i))
+                    .avg(rollup.averageAt(i))
+                    .count(rollup.countAt(i))
+                    .build());
+        }
+        return buckets;
+    }
+
+    private static HistoricalRatePointDto convertHistoryPointToDto(RateSeries series, int index) {
+        double value = series.valueAt(index);
+        return HistoricalRatePointDto.builder()
+                .date(EpochDays.format(series.dayAt(index)))
+                .officialRate(Double.isNaN(value) ? null : value)
+                .build();
     }
 
     @Override
     public CompareRatesResponseDto compareRates(String code, String fromDate, String toDate) {
-        String upCode = code.toUpperCase();
+        return compareRates(code, fromDate, toDate, false);
+    }
+
+    @Override
+    public CompareRatesResponseDto compareRates(String code, String fromDate, String toDate, boolean asOf) {
+        String upCode = RatesSnapshot.normalizeCode(code);
 
-        Optional<Double> fromOpt = findExactRateValue(upCode, fromDate);
-        Optional<Double> toOpt = findExactRateValue(upCode, toDate);
+        Optional<CurrencyEntry> entryOpt = snapshotStore.current().findByNormalizedCode(upCode);
+
+        Optional<DatedRate> fromOpt = entryOpt.flatMap(entry -> findRate(entry, fromDate, asOf));
+        Optional<DatedRate> toOpt = entryOpt.flatMap(entry -> findRate(entry, toDate, asOf));
 
         if (fromOpt.isEmpty()) {
             throw new DataNotFoundException("Official rate not found for code: " + upCode + " at date: " + fromDate);
@@ -529,19 +795,17 @@ public class CurrencyServiceImpl implements CurrencyService {
             throw new DataNotFoundException("Official rate not found for code: " + upCode + " at date: " + toDate);
         }
 
-        double from = fromOpt.get();
-        double to = toOpt.get();
+        double from = fromOpt.get().value();
+        double to = toOpt.get().value();
 
-        String change = null;
-        if (from != 0.0) {
-            double pct = ((to - from) / from) * 100.0;
-            change = String.format("%+,.2f%%", pct);
-        }
+        String change = LatestRatesTable.formatChange(to, from);
 
         return CompareRatesResponseDto.builder()
                 .code(upCode)
                 .fromDate(fromDate)
                 .toDate(toDate)
+                .fromEffectiveDate(fromOpt.get().date())
+                .toEffectiveDate(toOpt.get().date())
                 .rateFrom(from)
                 .rateTo(to)
                 .changePercent(change)
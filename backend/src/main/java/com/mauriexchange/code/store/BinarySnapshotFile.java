@@ -0,0 +1,567 @@
+package com.mauriexchange.code.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of a {@link RatesSnapshot}, memory-mapped at startup instead of parsing the JSON source.
+ *
+ * <p>Layout (little endian, every section 8-byte aligned):</p>
+ * <pre>
+ * header     magic "MXRS", format version, flags, currency count, row count,
+ *            stamp of the JSON source it was built from, offsets of the string pool and of each column,
+ *            offset and length of the extras
+ * directory  one fixed-width record per currency: id, unity, first row, row count,
+ *            audit timestamps (epoch micros) and string pool offsets of code and names
+ * strings    length-prefixed UTF-8
+ * columns    days int32, values float64, ids int64, unscaled values int64, end days int32,
+ *            value scales int8, then created/updated/published epoch micros int64 when retained
+ * extras     per currency that has any (big endian): verbatim value texts by row, then the rows
+ *            without a usable day with their day texts and source fields; ends with index -1
+ * </pre>
+ * <p>Rows of all currencies are stored back to back, each currency's rows sorted by day, so a currency's
+ * series and details are plain slices of the mapped columns and are never copied onto the heap.
+ * Files are written in chunks, column by column, and always replaced by an atomic move: a mapping of
+ * the previous file stays valid.</p>
+ *
+ * <p>Usage: {@code BinarySnapshotFile <source.json> [<output>] [--no-audit]}</p>
+ */
+public final class BinarySnapshotFile {
+
+    static final int MAGIC = 0x5352584D; // "MXRS" read little endian
+    static final int FORMAT_VERSION = 2;
+    static final int FLAG_AUDIT_FIELDS = 1;
+
+    private static final int HEADER_SIZE = 160;
+    private static final int DIRECTORY_ENTRY_SIZE = 64;
+    private static final int COLUMN_COUNT = 9;
+    private static final int NO_STRING = -1;
+    private static final int NO_UNITY = Integer.MIN_VALUE;
+    private static final int WRITE_CHUNK_SIZE = 64 * 1024;
+    private static final int EXTRAS_OFFSET = 120;
+    private static final int EXTRAS_LENGTH = 128;
+    private static final int END_OF_EXTRAS = -1;
+
+    // Column indexes in the header offset table
+    private static final int DAYS = 0;
+    private static final int VALUES = 1;
+    private static final int IDS = 2;
+    private static final int UNSCALED = 3;
+    private static final int END_DAYS = 4;
+    private static final int SCALES = 5;
+    private static final int CREATED = 6;
+    private static final int UPDATED = 7;
+    private static final int PUBLISHED = 8;
+    private static final int[] COLUMN_WIDTHS = {4, 8, 8, 8, 4, 1, 8, 8, 8};
+
+    private BinarySnapshotFile() {
+    }
+
+    /**
+     * Build the binary snapshot of a JSON source ahead of deployment.
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> positional = new ArrayList<>();
+        boolean retainAuditFields = true;
+        for (String arg : args) {
+            if ("--no-audit".equals(arg)) {
+                retainAuditFields = false;
+            } else {
+                positional.add(arg);
+            }
+        }
+        if (positional.isEmpty() || positional.size() > 2) {
+            System.err.println("Usage: BinarySnapshotFile <source.json> [<output>] [--no-audit]");
+            System.exit(1);
+        }
+        Path source = Paths.get(positional.get(0));
+        Path output = Paths.get(positional.size() > 1 ? positional.get(1) : positional.get(0) + ".snapshot");
+        RatesSnapshot snapshot = new JsonSnapshotLoader(retainAuditFields).load(source, 1);
+        write(snapshot, output);
+        System.out.println("Wrote " + output.toAbsolutePath() + " (" + snapshot.currencies().size() + " currencies, "
+                + snapshot.getRecordCount() + " rates, " + Files.size(output) + " bytes)");
+    }
+
+    /**
+     * Stamp of the JSON source the file was built from, read from the header only.
+     * @throws IOException if the file is not a binary snapshot of a supported version
+     */
+    public static SourceStamp readSourceStamp(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            checkHeader(header, channel.size());
+            return new SourceStamp(header.getLong(24), header.getLong(32));
+        }
+    }
+
+    /**
+     * Whether the file carries the per-row audit timestamp columns.
+     */
+    public static boolean hasAuditFields(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            checkHeader(header, channel.size());
+            return (header.getInt(8) & FLAG_AUDIT_FIELDS) != 0;
+        }
+    }
+
+    /**
+     * Map a binary snapshot. Only the directory and the strings are decoded; rate columns stay off-heap.
+     * @param retainAuditFields Expose the audit timestamp columns if the file has them
+     */
+    public static RatesSnapshot map(Path path, long version, boolean retainAuditFields) throws IOException {
+        long startedNanos = System.nanoTime();
+        MappedByteBuffer file;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Binary snapshot larger than 2 GB: " + path);
+            }
+            file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer buffer = file.order(ByteOrder.LITTLE_ENDIAN);
+        checkHeader(buffer, buffer.capacity());
+
+        int flags = buffer.getInt(8);
+        int currencyCount = buffer.getInt(12);
+        long rowCount = buffer.getLong(16);
+        SourceStamp stamp = new SourceStamp(buffer.getLong(24), buffer.getLong(32));
+        int stringsOffset = (int) buffer.getLong(40);
+        long[] columnOffsets = new long[COLUMN_COUNT];
+        for (int c = 0; c < COLUMN_COUNT; c++) {
+            columnOffsets[c] = buffer.getLong(48 + c * 8);
+        }
+        boolean audit = retainAuditFields && (flags & FLAG_AUDIT_FIELDS) != 0;
+        int columns = (flags & FLAG_AUDIT_FIELDS) != 0 ? COLUMN_COUNT : CREATED;
+        for (int c = 0; c < columns; c++) {
+            if (columnOffsets[c] < 0 || columnOffsets[c] + rowCount * COLUMN_WIDTHS[c] > buffer.capacity()) {
+                throw new IOException("Truncated binary snapshot: " + path);
+            }
+        }
+
+        IntBuffer days = column(buffer, columnOffsets[DAYS], rowCount, 4).asIntBuffer();
+        DoubleBuffer values = column(buffer, columnOffsets[VALUES], rowCount, 8).asDoubleBuffer();
+        LongBuffer ids = column(buffer, columnOffsets[IDS], rowCount, 8).asLongBuffer();
+        LongBuffer unscaled = column(buffer, columnOffsets[UNSCALED], rowCount, 8).asLongBuffer();
+        IntBuffer endDays = column(buffer, columnOffsets[END_DAYS], rowCount, 4).asIntBuffer();
+        ByteBuffer scales = column(buffer, columnOffsets[SCALES], rowCount, 1);
+        LongBuffer created = audit ? column(buffer, columnOffsets[CREATED], rowCount, 8).asLongBuffer() : null;
+        LongBuffer updated = audit ? column(buffer, columnOffsets[UPDATED], rowCount, 8).asLongBuffer() : null;
+        LongBuffer published = audit ? column(buffer, columnOffsets[PUBLISHED], rowCount, 8).asLongBuffer() : null;
+
+        long extrasOffset = buffer.getLong(EXTRAS_OFFSET);
+        long extrasLength = buffer.getLong(EXTRAS_LENGTH);
+        if (extrasOffset < 0 || extrasLength < 0 || extrasOffset + extrasLength > buffer.capacity()) {
+            throw new IOException("Truncated binary snapshot: " + path);
+        }
+        byte[] extrasBytes = new byte[(int) extrasLength];
+        buffer.get((int) extrasOffset, extrasBytes);
+        Map<Integer, Extras> extras = readExtras(extrasBytes, currencyCount, (flags & FLAG_AUDIT_FIELDS) != 0, audit);
+
+        List<CurrencyEntry> currencies = new ArrayList<>(currencyCount);
+        for (int i = 0; i < currencyCount; i++) {
+            int entry = HEADER_SIZE + i * DIRECTORY_ENTRY_SIZE;
+            long id = buffer.getLong(entry);
+            int unity = buffer.getInt(entry + 8);
+            int count = buffer.getInt(entry + 12);
+            long first = buffer.getLong(entry + 16);
+            if (first < 0 || count < 0 || first + count > rowCount) {
+                throw new IOException("Corrupt currency directory in binary snapshot: " + path);
+            }
+            int from = (int) first;
+
+            RateSeries series = new RateSeries(days.slice(from, count), values.slice(from, count));
+            Extras extra = extras.getOrDefault(i, Extras.NONE);
+            RateDetails details = new RateDetails(ids.slice(from, count), unscaled.slice(from, count),
+                    scales.slice(from, count), endDays.slice(from, count),
+                    audit ? created.slice(from, count) : null,
+                    audit ? updated.slice(from, count) : null,
+                    audit ? published.slice(from, count) : null,
+                    extra.valueTexts());
+
+            currencies.add(CurrencyEntry.builder()
+                    .id(id == RateDetails.ABSENT ? null : id)
+                    .unity(unity == NO_UNITY ? null : unity)
+                    .createdAt(timestamp(buffer.getLong(entry + 24)))
+                    .updatedAt(timestamp(buffer.getLong(entry + 32)))
+                    .publishedAt(timestamp(buffer.getLong(entry + 40)))
+                    .code(string(buffer, stringsOffset, buffer.getInt(entry + 48)))
+                    .nameFr(string(buffer, stringsOffset, buffer.getInt(entry + 52)))
+                    .nameAr(string(buffer, stringsOffset, buffer.getInt(entry + 56)))
+                    .series(series)
+                    .details(details)
+                    .undated(extra.undated())
+                    .build());
+        }
+        return RatesSnapshot.of(currencies, version, stamp, startedNanos);
+    }
+
+    /**
+     * Write a snapshot to a temporary file next to the target, then move it into place atomically.
+     */
+    public static void write(RatesSnapshot snapshot, Path path) throws IOException {
+        List<CurrencyEntry> currencies = snapshot.currencies();
+        boolean audit = !currencies.isEmpty()
+                && currencies.stream().allMatch(entry -> entry.getDetails().hasAuditFields() || entry.getSeries().isEmpty());
+        long rowCount = 0;
+        for (CurrencyEntry entry : currencies) {
+            rowCount += entry.getSeries().size();
+        }
+
+        // String pool
+        ByteBuffer strings = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+        int[][] stringRefs = new int[currencies.size()][];
+        for (int i = 0; i < currencies.size(); i++) {
+            CurrencyEntry entry = currencies.get(i);
+            stringRefs[i] = new int[3];
+            String[] texts = {entry.getCode(), entry.getNameFr(), entry.getNameAr()};
+            for (int t = 0; t < texts.length; t++) {
+                if (texts[t] == null) {
+                    stringRefs[i][t] = NO_STRING;
+                    continue;
+                }
+                byte[] utf8 = texts[t].getBytes(StandardCharsets.UTF_8);
+                if (strings.remaining() < utf8.length + 4) {
+                    strings = ByteBuffer.allocate(Math.max(strings.capacity() * 2, strings.position() + utf8.length + 4))
+                            .order(ByteOrder.LITTLE_ENDIAN)
+                            .put(strings.flip());
+                }
+                stringRefs[i][t] = strings.position();
+                strings.putInt(utf8.length).put(utf8);
+            }
+        }
+        strings.flip();
+
+        long stringsOffset = HEADER_SIZE + (long) currencies.size() * DIRECTORY_ENTRY_SIZE;
+        long[] columnOffsets = new long[COLUMN_COUNT];
+        long offset = align(stringsOffset + strings.remaining());
+        int columns = audit ? COLUMN_COUNT : CREATED;
+        for (int c = 0; c < columns; c++) {
+            columnOffsets[c] = offset;
+            offset = align(offset + rowCount * COLUMN_WIDTHS[c]);
+        }
+        byte[] extras = extras(currencies, audit);
+        long extrasOffset = offset;
+        offset += extras.length;
+        if (offset > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot too large for the binary format (" + offset + " bytes)");
+        }
+
+        // Header, directory and strings grow with the currencies only; rows are streamed column by column
+        long columnsOffset = align(stringsOffset + strings.remaining());
+        ByteBuffer head = ByteBuffer.allocate((int) columnsOffset).order(ByteOrder.LITTLE_ENDIAN);
+        head.putInt(0, MAGIC);
+        head.putInt(4, FORMAT_VERSION);
+        head.putInt(8, audit ? FLAG_AUDIT_FIELDS : 0);
+        head.putInt(12, currencies.size());
+        head.putLong(16, rowCount);
+        head.putLong(24, snapshot.getSourceStamp().lastModifiedMillis());
+        head.putLong(32, snapshot.getSourceStamp().size());
+        head.putLong(40, stringsOffset);
+        for (int c = 0; c < COLUMN_COUNT; c++) {
+            head.putLong(48 + c * 8, columnOffsets[c]);
+        }
+        head.putLong(EXTRAS_OFFSET, extrasOffset);
+        head.putLong(EXTRAS_LENGTH, extras.length);
+        head.put((int) stringsOffset, strings, 0, strings.remaining());
+
+        long row = 0;
+        for (int i = 0; i < currencies.size(); i++) {
+            CurrencyEntry entry = currencies.get(i);
+            int dir = HEADER_SIZE + i * DIRECTORY_ENTRY_SIZE;
+            head.putLong(dir, entry.getId() != null ? entry.getId() : RateDetails.ABSENT);
+            head.putInt(dir + 8, entry.getUnity() != null ? entry.getUnity() : NO_UNITY);
+            head.putInt(dir + 12, entry.getSeries().size());
+            head.putLong(dir + 16, row);
+            head.putLong(dir + 24, micros(entry.getCreatedAt()));
+            head.putLong(dir + 32, micros(entry.getUpdatedAt()));
+            head.putLong(dir + 40, micros(entry.getPublishedAt()));
+            head.putInt(dir + 48, stringRefs[i][0]);
+            head.putInt(dir + 52, stringRefs[i][1]);
+            head.putInt(dir + 56, stringRefs[i][2]);
+            row += entry.getSeries().size();
+        }
+
+        Path absolute = path.toAbsolutePath();
+        Path tmp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(channel, head);
+                ByteBuffer chunk = ByteBuffer.allocate(WRITE_CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                for (int c = 0; c < columns; c++) {
+                    for (CurrencyEntry entry : currencies) {
+                        writeColumn(channel, chunk, c, entry.getSeries(), entry.getDetails());
+                    }
+                    // Pad the column to the next section
+                    long end = columnOffsets[c] + rowCount * COLUMN_WIDTHS[c];
+                    for (long pad = end; pad < align(end); pad++) {
+                        put(channel, chunk, 1).put((byte) 0);
+                    }
+                    flush(channel, chunk);
+                }
+                writeFully(channel, ByteBuffer.wrap(extras));
+                channel.force(true);
+            }
+            Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Value texts and undated rows of every currency that has any. Both only exist for rows the source
+     * published in an unusual form, so this stays small.
+     */
+    private static byte[] extras(List<CurrencyEntry> currencies, boolean audit) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int i = 0; i < currencies.size(); i++) {
+            CurrencyEntry entry = currencies.get(i);
+            UndatedRates undated = entry.getUndated();
+            if (entry.getDetails().valueTexts().size() == 0 && undated.size() == 0) {
+                continue;
+            }
+            out.writeInt(i);
+            writeValueTexts(out, entry.getDetails().valueTexts());
+            out.writeInt(undated.size());
+            RateDetails details = undated.details();
+            boolean undatedAudit = audit && details.hasAuditFields();
+            for (int r = 0; r < undated.size(); r++) {
+                writeString(out, undated.dayTexts().get(r));
+                out.writeLong(details.rawIdAt(r));
+                out.writeLong(details.rawUnscaledValueAt(r));
+                out.writeByte(details.rawValueScaleAt(r));
+                out.writeInt(details.rawEndDayAt(r));
+                if (audit) {
+                    out.writeLong(undatedAudit ? details.rawCreatedAtMicros(r) : RateDetails.ABSENT);
+                    out.writeLong(undatedAudit ? details.rawUpdatedAtMicros(r) : RateDetails.ABSENT);
+                    out.writeLong(undatedAudit ? details.rawPublishedAtMicros(r) : RateDetails.ABSENT);
+                }
+            }
+            writeValueTexts(out, details.valueTexts());
+        }
+        out.writeInt(END_OF_EXTRAS);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Map<Integer, Extras> readExtras(byte[] bytes, int currencyCount, boolean fileAudit, boolean audit)
+            throws IOException {
+        Map<Integer, Extras> extras = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            for (int currency = in.readInt(); currency != END_OF_EXTRAS; currency = in.readInt()) {
+                if (currency < 0 || currency >= currencyCount) {
+                    throw new IOException("Corrupt extras in binary snapshot");
+                }
+                ValueTexts valueTexts = readValueTexts(in);
+                int count = in.readInt();
+                if (count < 0 || count > bytes.length) {
+                    throw new IOException("Corrupt extras in binary snapshot");
+                }
+                List<String> dayTexts = new ArrayList<>(count);
+                long[] ids = new long[count];
+                long[] unscaled = new long[count];
+                byte[] scales = new byte[count];
+                int[] endDays = new int[count];
+                long[] created = audit ? new long[count] : null;
+                long[] updated = audit ? new long[count] : null;
+                long[] published = audit ? new long[count] : null;
+                for (int r = 0; r < count; r++) {
+                    dayTexts.add(readString(in));
+                    ids[r] = in.readLong();
+                    unscaled[r] = in.readLong();
+                    scales[r] = in.readByte();
+                    endDays[r] = in.readInt();
+                    if (fileAudit) {
+                        long createdMicros = in.readLong();
+                        long updatedMicros = in.readLong();
+                        long publishedMicros = in.readLong();
+                        if (audit) {
+                            created[r] = createdMicros;
+                            updated[r] = updatedMicros;
+                            published[r] = publishedMicros;
+                        }
+                    }
+                }
+                RateDetails details = new RateDetails(ids, unscaled, scales, endDays, created, updated, published,
+                        readValueTexts(in));
+                UndatedRates undated = count == 0
+                        ? UndatedRates.EMPTY
+                        : new UndatedRates(Collections.unmodifiableList(dayTexts), details);
+                extras.put(currency, new Extras(valueTexts, undated));
+            }
+        } catch (EOFException e) {
+            throw new IOException("Truncated extras in binary snapshot", e);
+        }
+        return extras;
+    }
+
+    private static void writeValueTexts(DataOutputStream out, ValueTexts texts) throws IOException {
+        out.writeInt(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            out.writeInt(texts.rowAt(i));
+            writeString(out, texts.textAt(i));
+        }
+    }
+
+    private static ValueTexts readValueTexts(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count == 0) {
+            return ValueTexts.NONE;
+        }
+        if (count < 0 || count > in.available()) {
+            throw new IOException("Corrupt value texts in binary snapshot");
+        }
+        int[] rows = new int[count];
+        String[] texts = new String[count];
+        for (int i = 0; i < count; i++) {
+            rows[i] = in.readInt();
+            texts[i] = readString(in);
+        }
+        return new ValueTexts(rows, texts, count);
+    }
+
+    private static void writeString(DataOutputStream out, String text) throws IOException {
+        if (text == null) {
+            out.writeInt(NO_STRING);
+            return;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NO_STRING) {
+            return null;
+        }
+        if (length < 0 || length > in.available()) {
+            throw new IOException("Corrupt string in binary snapshot extras");
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private record Extras(ValueTexts valueTexts, UndatedRates undated) {
+        static final Extras NONE = new Extras(ValueTexts.NONE, UndatedRates.EMPTY);
+    }
+
+    private static void writeColumn(FileChannel channel, ByteBuffer chunk, int column, RateSeries series,
+                                    RateDetails details) throws IOException {
+        int width = COLUMN_WIDTHS[column];
+        for (int r = 0; r < series.size(); r++) {
+            ByteBuffer out = put(channel, chunk, width);
+            switch (column) {
+                case DAYS -> out.putInt(series.dayAt(r));
+                case VALUES -> out.putDouble(series.valueAt(r));
+                case IDS -> out.putLong(details.rawIdAt(r));
+                case UNSCALED -> out.putLong(details.rawUnscaledValueAt(r));
+                case END_DAYS -> out.putInt(details.rawEndDayAt(r));
+                case SCALES -> out.put(details.rawValueScaleAt(r));
+                case CREATED -> out.putLong(details.rawCreatedAtMicros(r));
+                case UPDATED -> out.putLong(details.rawUpdatedAtMicros(r));
+                case PUBLISHED -> out.putLong(details.rawPublishedAtMicros(r));
+                default -> throw new IllegalArgumentException("Unknown column " + column);
+            }
+        }
+    }
+
+    /**
+     * The chunk, flushed first if it has less than {@code bytes} left.
+     */
+    private static ByteBuffer put(FileChannel channel, ByteBuffer chunk, int bytes) throws IOException {
+        if (chunk.remaining() < bytes) {
+            flush(channel, chunk);
+        }
+        return chunk;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer chunk) throws IOException {
+        chunk.flip();
+        writeFully(channel, chunk);
+        chunk.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void checkHeader(ByteBuffer header, long fileSize) throws IOException {
+        if (fileSize < HEADER_SIZE || header.limit() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary rates snapshot");
+        }
+        if (header.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported binary snapshot version " + header.getInt(4));
+        }
+        long directoryEnd = HEADER_SIZE + (long) header.getInt(12) * DIRECTORY_ENTRY_SIZE;
+        if (header.getInt(12) < 0 || directoryEnd > fileSize || header.getLong(40) < directoryEnd) {
+            throw new IOException("Truncated binary snapshot");
+        }
+    }
+
+    private static ByteBuffer column(ByteBuffer file, long offset, long rows, int width) {
+        return file.slice((int) offset, (int) (rows * width)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static String string(ByteBuffer file, int stringsOffset, int ref) throws IOException {
+        if (ref == NO_STRING) {
+            return null;
+        }
+        int at = stringsOffset + ref;
+        if (ref < 0 || at + 4 > file.capacity()) {
+            throw new IOException("Corrupt string reference in binary snapshot");
+        }
+        int length = file.getInt(at);
+        if (length < 0 || at + 4 + length > file.capacity()) {
+            throw new IOException("Corrupt string in binary snapshot");
+        }
+        byte[] utf8 = new byte[length];
+        file.get(at + 4, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time != null ? RateDetails.toMicros(time) : RateDetails.ABSENT;
+    }
+
+    private static LocalDateTime timestamp(long micros) {
+        return micros == RateDetails.ABSENT ? null : RateDetails.fromMicros(micros);
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+}
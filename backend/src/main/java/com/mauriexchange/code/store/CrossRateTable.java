@@ -0,0 +1,89 @@
+package com.mauriexchange.code.store;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * N×N matrix of effective conversion rates between every pair of currencies that has a latest
+ * official rate, plus MRU, built once per {@link RatesSnapshot}. Official rates are expressed in
+ * MRU per unit, so MRU itself always has rate 1 and no reference date.
+ */
+public final class CrossRateTable {
+
+    public static final String BASE_CODE = "MRU";
+    private static final int NO_DAY = Integer.MIN_VALUE;
+
+    private final Map<String, Integer> indexByCode;
+    private final int size;
+    private final double[] rates;
+    private final int[] days;
+    private final String[] dayLabels;
+
+    CrossRateTable(List<CurrencyEntry> currencies) {
+        Map<String, Integer> index = new HashMap<>(currencies.size() * 2);
+        double[] mruValues = new double[currencies.size() + 1];
+        int[] latestDays = new int[currencies.size() + 1];
+        String[] labels = new String[currencies.size() + 1];
+
+        // MRU is the base unit in our dataset and takes slot 0
+        index.put(BASE_CODE, 0);
+        mruValues[0] = 1.0;
+        latestDays[0] = NO_DAY;
+        int n = 1;
+        for (CurrencyEntry entry : currencies) {
+            if (entry.getCode() == null) {
+                continue;
+            }
+            String code = RatesSnapshot.normalizeCode(entry.getCode());
+            RateSeries series = entry.getSeries();
+            if (series.isEmpty() || index.containsKey(code)) {
+                continue;
+            }
+            // The latest published rate or nothing: an unusable latest value never falls back to an older day
+            int latestIdx = series.lowerBound(series.dayAt(series.size() - 1));
+            if (Double.isNaN(series.valueAt(latestIdx))) {
+                continue;
+            }
+            index.put(code, n);
+            mruValues[n] = series.valueAt(latestIdx);
+            latestDays[n] = series.dayAt(latestIdx);
+            labels[n] = EpochDays.format(latestDays[n]);
+            n++;
+        }
+
+        this.indexByCode = index;
+        this.size = n;
+        this.days = latestDays;
+        this.dayLabels = labels;
+        this.rates = new double[n * n];
+        for (int from = 0; from < n; from++) {
+            for (int to = 0; to < n; to++) {
+                rates[from * n + to] = mruValues[from] / mruValues[to];
+            }
+        }
+    }
+
+    /**
+     * Slot of a normalized currency code, or -1 if it has no rates or its latest one is not usable.
+     */
+    public int indexOf(String normalizedCode) {
+        Integer idx = indexByCode.get(normalizedCode);
+        return idx != null ? idx : -1;
+    }
+
+    /**
+     * Units of {@code to} per unit of {@code from}.
+     */
+    public double rate(int from, int to) {
+        return rates[from * size + to];
+    }
+
+    /**
+     * Reference date of a conversion: the later of the two latest publication dates, or null for MRU to MRU.
+     */
+    public String date(int from, int to) {
+        int pick = days[from] >= days[to] ? from : to;
+        return days[pick] == NO_DAY ? null : dayLabels[pick];
+    }
+}
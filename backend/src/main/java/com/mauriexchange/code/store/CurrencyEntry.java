@@ -0,0 +1,34 @@
+package com.mauriexchange.code.store;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A currency of a {@link RatesSnapshot}: its descriptive fields, its primitive rate series,
+ * the per-row source details parallel to that series, and the rows that had no usable day.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class CurrencyEntry {
+
+    private final Long id;
+    private final String code;
+    private final String nameFr;
+    private final String nameAr;
+    private final Integer unity;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final LocalDateTime publishedAt;
+    @Builder.Default
+    private final RateSeries series = RateSeries.EMPTY;
+    @Builder.Default
+    private final RateDetails details = RateDetails.EMPTY;
+    @Builder.Default
+    private final UndatedRates undated = UndatedRates.EMPTY;
+    // Shared backing arrays once rates were appended incrementally, null for loaded columns
+    @Getter(AccessLevel.PACKAGE)
+    private final RateSegment segment;
+}
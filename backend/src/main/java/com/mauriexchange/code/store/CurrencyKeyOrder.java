@@ -0,0 +1,87 @@
+package com.mauriexchange.code.store;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Currencies of a {@link RatesSnapshot} ordered by (normalized code, id), a key that does not depend
+ * on the order of the source. Cursor pagination resumes after a key rather than a position, so a page
+ * sequence stays consistent when a reload adds, removes or reorders currencies.
+ */
+public final class CurrencyKeyOrder {
+
+    /** Id used in keys of currencies without an id. */
+    public static final long NO_ID = Long.MIN_VALUE;
+
+    private final int[] positions;
+    private final String[] codes;
+    private final long[] ids;
+
+    CurrencyKeyOrder(List<CurrencyEntry> currencies) {
+        int n = currencies.size();
+        String[] entryCodes = new String[n];
+        long[] entryIds = new long[n];
+        for (int i = 0; i < n; i++) {
+            entryCodes[i] = code(currencies.get(i));
+            entryIds[i] = id(currencies.get(i));
+        }
+        positions = IntStream.range(0, n)
+                .boxed()
+                .sorted((a, b) -> compare(entryCodes[a], entryIds[a], entryCodes[b], entryIds[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        codes = new String[n];
+        ids = new long[n];
+        for (int rank = 0; rank < n; rank++) {
+            codes[rank] = entryCodes[positions[rank]];
+            ids[rank] = entryIds[positions[rank]];
+        }
+    }
+
+    public int size() {
+        return positions.length;
+    }
+
+    /**
+     * Index into {@link RatesSnapshot#currencies()} of the currency at the given rank.
+     */
+    public int positionAt(int rank) {
+        return positions[rank];
+    }
+
+    /**
+     * Rank of the first currency whose key is strictly greater than the given one (size() if none).
+     */
+    public int firstAfter(String code, long id) {
+        int lo = 0;
+        int hi = positions.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(codes[mid], ids[mid], code, id) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Code part of a currency's key: its normalized code, or an empty string.
+     */
+    public static String code(CurrencyEntry entry) {
+        return entry.getCode() != null ? RatesSnapshot.normalizeCode(entry.getCode()) : "";
+    }
+
+    /**
+     * Id part of a currency's key: its id, or {@link #NO_ID}.
+     */
+    public static long id(CurrencyEntry entry) {
+        return entry.getId() != null ? entry.getId() : NO_ID;
+    }
+
+    private static int compare(String codeA, long idA, String codeB, long idB) {
+        int byCode = codeA.compareTo(codeB);
+        return byCode != 0 ? byCode : Long.compare(idA, idB);
+    }
+}
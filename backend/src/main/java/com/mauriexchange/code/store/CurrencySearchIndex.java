@@ -0,0 +1,193 @@
+package com.mauriexchange.code.store;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Name and code search over the currencies of a {@link RatesSnapshot}, built once per snapshot.
+ *
+ * <p>Names and codes are folded once at build time: lower case, Latin accents removed, Arabic
+ * diacritics and tatweel removed, alef/hamza variants unified, ta marbuta read as ha and alef maqsura as
+ * ya. Queries are folded the same way, so "emirats" finds "Dirham des Émirats" and "اليوان" finds
+ * "اليوان الصيني".</p>
+ *
+ * <p>Typeahead uses a sorted array of terms: the code, and each name from every word onwards (plus Arabic
+ * words without their "ال" article). A prefix query is then one binary search followed by a scan of the
+ * matching range, comparing against the folded terms in place.</p>
+ */
+public final class CurrencySearchIndex {
+
+    // Match kinds, best first
+    private static final int CODE_EXACT = 0;
+    private static final int CODE_PREFIX = 1;
+    private static final int NAME_START = 2;
+    private static final int WORD_START = 3;
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final int currencyCount;
+    private final String[] foldedNames;
+    private final String[] terms;
+    private final int[] termCurrencies;
+    private final byte[] termKinds;
+
+    CurrencySearchIndex(List<CurrencyEntry> currencies) {
+        currencyCount = currencies.size();
+        foldedNames = new String[currencyCount];
+        List<Term> collected = new ArrayList<>(currencyCount * 8);
+        for (int i = 0; i < currencyCount; i++) {
+            CurrencyEntry entry = currencies.get(i);
+            String nameFr = entry.getNameFr() != null ? fold(entry.getNameFr()) : "";
+            String nameAr = entry.getNameAr() != null ? fold(entry.getNameAr()) : "";
+            foldedNames[i] = nameFr + '\n' + nameAr;
+            if (entry.getCode() != null) {
+                collected.add(new Term(fold(entry.getCode()), i, CODE_PREFIX));
+            }
+            addNameTerms(collected, nameFr, i);
+            addNameTerms(collected, nameAr, i);
+        }
+        collected.sort(Comparator.comparing(Term::text));
+        terms = new String[collected.size()];
+        termCurrencies = new int[collected.size()];
+        termKinds = new byte[collected.size()];
+        for (int t = 0; t < collected.size(); t++) {
+            terms[t] = collected.get(t).text();
+            termCurrencies[t] = collected.get(t).currency();
+            termKinds[t] = (byte) collected.get(t).kind();
+        }
+    }
+
+    /**
+     * Currencies whose French or Arabic name contains the query, in snapshot order.
+     * @return indexes into {@link RatesSnapshot#currencies()}
+     */
+    public int[] search(String query) {
+        String folded = fold(query);
+        int[] matches = new int[currencyCount];
+        int count = 0;
+        for (int i = 0; i < currencyCount; i++) {
+            if (foldedNames[i].contains(folded)) {
+                matches[count++] = i;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Typeahead: currencies with a code, a name or a word of a name starting with the query. Exact code
+     * matches come first, then code prefixes, names starting with the query and finally inner words, each
+     * in snapshot order.
+     * @return at most {@code limit} indexes into {@link RatesSnapshot#currencies()}
+     */
+    public int[] suggest(String query, int limit) {
+        String prefix = fold(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+        int[] best = new int[currencyCount];
+        Arrays.fill(best, NO_MATCH);
+        int matched = 0;
+        for (int t = firstAtOrAfter(prefix); t < terms.length && terms[t].startsWith(prefix); t++) {
+            int kind = termKinds[t] == CODE_PREFIX && terms[t].length() == prefix.length() ? CODE_EXACT : termKinds[t];
+            int currency = termCurrencies[t];
+            if (best[currency] == NO_MATCH) {
+                matched++;
+            }
+            best[currency] = Math.min(best[currency], kind);
+        }
+
+        // Rank in the high half, snapshot position in the low half
+        long[] ranked = new long[matched];
+        int n = 0;
+        for (int i = 0; i < currencyCount; i++) {
+            if (best[i] != NO_MATCH) {
+                ranked[n++] = ((long) best[i] << 32) | i;
+            }
+        }
+        Arrays.sort(ranked);
+        int[] result = new int[Math.min(limit, matched)];
+        for (int r = 0; r < result.length; r++) {
+            result[r] = (int) ranked[r];
+        }
+        return result;
+    }
+
+    /**
+     * Canonical form used for indexing and querying: see the class comment. Punctuation and runs of
+     * whitespace become a single space.
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            int type = Character.getType(c);
+            if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK || c == 'ـ') {
+                // Accents, Arabic harakat and hamza marks (split off by NFD), tatweel
+                continue;
+            }
+            if (!Character.isLetterOrDigit(c)) {
+                pendingSpace = folded.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                folded.append(' ');
+                pendingSpace = false;
+            }
+            switch (c) {
+                case 'ٱ', 'ٲ', 'ٳ', 'ٵ' -> folded.append('ا'); // alef wasla / hamza forms -> alef
+                case 'ة' -> folded.append('ه'); // ta marbuta -> ha
+                case 'ى' -> folded.append('ي'); // alef maqsura -> ya
+                case 'ء' -> { } // lone hamza
+                case 'œ' -> folded.append("oe");
+                case 'æ', 'Æ' -> folded.append("ae");
+                case 'Œ' -> folded.append("oe");
+                case 'ß' -> folded.append("ss");
+                default -> folded.append(Character.toLowerCase(c));
+            }
+        }
+        return folded.toString();
+    }
+
+    private static void addNameTerms(List<Term> collected, String name, int currency) {
+        if (name.isEmpty()) {
+            return;
+        }
+        collected.add(new Term(name, currency, NAME_START));
+        for (int i = 0; i < name.length(); i++) {
+            boolean wordStart = i == 0 || name.charAt(i - 1) == ' ';
+            if (!wordStart) {
+                continue;
+            }
+            if (i > 0) {
+                collected.add(new Term(name.substring(i), currency, WORD_START));
+            }
+            // Arabic definite article: "الدولار" is also found as "دولار"
+            if (name.startsWith("ال", i) && i + 2 < name.length() && name.charAt(i + 2) != ' ') {
+                collected.add(new Term(name.substring(i + 2), currency, i == 0 ? NAME_START : WORD_START));
+            }
+        }
+    }
+
+    private int firstAtOrAfter(String prefix) {
+        int lo = 0;
+        int hi = terms.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (terms[mid].compareTo(prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private record Term(String text, int currency, int kind) {}
+}
@@ -0,0 +1,71 @@
+package com.mauriexchange.code.store;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Conversions between ISO dates (YYYY-MM-DD) and epoch days, the key type of every rate series.
+ */
+public final class EpochDays {
+
+    private EpochDays() {
+    }
+
+    /**
+     * Parse an ISO local date into its epoch day.
+     * @param text Date in YYYY-MM-DD
+     * @return Days since 1970-01-01
+     * @throws DateTimeParseException if the text is not a valid ISO date
+     */
+    public static int parse(String text) {
+        if (text == null) {
+            throw new DateTimeParseException("Expected YYYY-MM-DD", "null", 0);
+        }
+        return parse(text.toCharArray(), 0, text.length());
+    }
+
+    /**
+     * Parse an ISO local date straight from a character buffer, e.g. a JSON parser's text buffer,
+     * without materializing a String.
+     */
+    public static int parse(char[] buffer, int offset, int length) {
+        if (length != 10 || buffer[offset + 4] != '-' || buffer[offset + 7] != '-') {
+            throw new DateTimeParseException("Expected YYYY-MM-DD", new String(buffer, offset, length), 0);
+        }
+        int year = 0;
+        int month = 0;
+        int day = 0;
+        for (int i = 0; i < 10; i++) {
+            if (i == 4 || i == 7) {
+                continue;
+            }
+            int digit = buffer[offset + i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new DateTimeParseException("Expected YYYY-MM-DD", new String(buffer, offset, length), i);
+            }
+            if (i < 4) {
+                year = year * 10 + digit;
+            } else if (i < 7) {
+                month = month * 10 + digit;
+            } else {
+                day = day * 10 + digit;
+            }
+        }
+        return toEpochDay(year, month, day, buffer, offset, length);
+    }
+
+    /**
+     * Format an epoch day as an ISO local date.
+     */
+    public static String format(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay).toString();
+    }
+
+    private static int toEpochDay(int year, int month, int day, char[] buffer, int offset, int length) {
+        try {
+            return (int) LocalDate.of(year, month, day).toEpochDay();
+        } catch (java.time.DateTimeException ex) {
+            throw new DateTimeParseException(ex.getMessage(), new String(buffer, offset, length), 0, ex);
+        }
+    }
+}
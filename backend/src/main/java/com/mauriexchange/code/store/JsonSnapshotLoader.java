@@ -0,0 +1,254 @@
+package com.mauriexchange.code.store;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for the BCM JSON source. Tokens go straight from the file channel into
+ * primitive columns, so the document is never held as a String or as a POJO tree and load-time
+ * heap stays proportional to the resulting snapshot rather than to the file. Rate days and values
+ * are decoded from the parser's character buffer, unknown fields are skipped without decoding,
+ * and per-row audit timestamps are only decoded when retained.
+ */
+@Slf4j
+public class JsonSnapshotLoader {
+
+    private final JsonFactory jsonFactory = JsonFactory.builder().build();
+    private final boolean retainAuditFields;
+
+    public JsonSnapshotLoader(boolean retainAuditFields) {
+        this.retainAuditFields = retainAuditFields;
+    }
+
+    public RatesSnapshot load(Path path, long version) throws IOException {
+        long startedNanos = System.nanoTime();
+        SourceStamp stamp = SourceStamp.of(path);
+        return RatesSnapshot.of(readCurrencies(path), version, stamp, startedNanos);
+    }
+
+    /**
+     * Read the currencies of a document in the source shape without building a snapshot, e.g. a delta
+     * holding only newly published rates.
+     */
+    public List<CurrencyEntry> readCurrencies(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path);
+             JsonParser parser = jsonFactory.createParser(in)) {
+            return readDocument(parser);
+        }
+    }
+
+    private List<CurrencyEntry> readDocument(JsonParser parser) throws IOException {
+        expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+        List<CurrencyEntry> currencies = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("data".equals(field) && token == JsonToken.START_ARRAY) {
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == JsonToken.START_OBJECT) {
+                        currencies.add(readCurrency(parser));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return currencies;
+    }
+
+    private CurrencyEntry readCurrency(JsonParser parser) throws IOException {
+        CurrencyEntry.CurrencyEntryBuilder entry = CurrencyEntry.builder();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("id".equals(field)) {
+                entry.id(readLong(parser, token));
+            } else if ("attributes".equals(field) && token == JsonToken.START_OBJECT) {
+                readCurrencyAttributes(parser, entry);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return entry.build();
+    }
+
+    private void readCurrencyAttributes(JsonParser parser, CurrencyEntry.CurrencyEntryBuilder entry) throws IOException {
+        String code = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "name_fr" -> entry.nameFr(parser.getValueAsString());
+                case "name_ar" -> entry.nameAr(parser.getValueAsString());
+                case "unity" -> entry.unity(token == JsonToken.VALUE_NULL ? null : parser.getValueAsInt());
+                case "code" -> {
+                    code = token == JsonToken.VALUE_NULL ? null : parser.getValueAsString().intern();
+                    entry.code(code);
+                }
+                case "createdAt" -> entry.createdAt(readTimestamp(parser, token));
+                case "updatedAt" -> entry.updatedAt(readTimestamp(parser, token));
+                case "publishedAt" -> entry.publishedAt(readTimestamp(parser, token));
+                case "money_today_changes" -> {
+                    if (token == JsonToken.START_OBJECT) {
+                        RateColumnsBuilder.Columns columns = readRates(parser, code);
+                        entry.series(columns.series()).details(columns.details()).undated(columns.undated());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private RateColumnsBuilder.Columns readRates(JsonParser parser, String code) throws IOException {
+        RateColumnsBuilder columns = new RateColumnsBuilder(retainAuditFields);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("data".equals(field) && token == JsonToken.START_ARRAY) {
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == JsonToken.START_OBJECT) {
+                        readRate(parser, columns, code);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return columns.build();
+    }
+
+    private void readRate(JsonParser parser, RateColumnsBuilder columns, String code) throws IOException {
+        columns.beginRow();
+        Long id = null;
+        boolean hasDay = false;
+        int day = 0;
+        String dayText = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("id".equals(field)) {
+                id = readLong(parser, token);
+                if (id != null) {
+                    columns.id(id);
+                }
+            } else if ("attributes".equals(field) && token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String attr = parser.currentName();
+                    token = parser.nextToken();
+                    if (token == JsonToken.VALUE_NULL) {
+                        continue;
+                    }
+                    if (!token.isScalarValue()) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    switch (attr) {
+                        case "day" -> {
+                            try {
+                                day = EpochDays.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                                hasDay = true;
+                            } catch (DateTimeParseException ex) {
+                                hasDay = false;
+                                dayText = parser.getText();
+                                log.warn("Rate {} of {} has invalid day '{}', kept out of its series", id, code, dayText);
+                            }
+                        }
+                        case "value" -> columns.value(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                        case "end_date" -> {
+                            try {
+                                columns.endDay(EpochDays.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()));
+                            } catch (DateTimeParseException ignored) {
+                                // end dates are informational only
+                            }
+                        }
+                        case "createdAt" -> {
+                            if (columns.retainsAuditFields()) columns.createdAt(toMicros(readTimestamp(parser, token)));
+                        }
+                        case "updatedAt" -> {
+                            if (columns.retainsAuditFields()) columns.updatedAt(toMicros(readTimestamp(parser, token)));
+                        }
+                        case "publishedAt" -> {
+                            if (columns.retainsAuditFields()) columns.publishedAt(toMicros(readTimestamp(parser, token)));
+                        }
+                        default -> {
+                            // not queried by any endpoint
+                        }
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (hasDay) {
+            columns.commitRow(day);
+        } else {
+            // Still listed in full currency views, as published
+            columns.commitUndatedRow(dayText);
+        }
+    }
+
+    private static Long readLong(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Long.parseLong(parser.getText());
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static LocalDateTime readTimestamp(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return null;
+        }
+        String text = parser.getText();
+        try {
+            TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parse(text);
+            if (parsed.isSupported(ChronoField.OFFSET_SECONDS)) {
+                return OffsetDateTime.from(parsed).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+            }
+            return LocalDateTime.from(parsed);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time != null ? RateDetails.toMicros(time) : RateDetails.ABSENT;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new com.fasterxml.jackson.core.JsonParseException(parser,
+                    "Expected " + expected + " but found " + actual);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.mauriexchange.code.store;
+
+import java.util.List;
+
+/**
+ * Latest and previous official rate of every currency, computed once per {@link RatesSnapshot}.
+ * Rows follow the snapshot's currency order; missing values are {@link Double#NaN}. A day published
+ * several times is read from its first row, as in {@link RateSeries#indexOf(int)}.
+ */
+public final class LatestRatesTable {
+
+    private final String latestDate;
+    private final String[] codes;
+    private final String[] names;
+    private final double[] latestValues;
+    private final double[] previousValues;
+    private final String[] changes;
+
+    LatestRatesTable(List<CurrencyEntry> currencies) {
+        int n = currencies.size();
+        codes = new String[n];
+        names = new String[n];
+        latestValues = new double[n];
+        previousValues = new double[n];
+        changes = new String[n];
+        int maxDay = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            CurrencyEntry entry = currencies.get(i);
+            RateSeries series = entry.getSeries();
+            codes[i] = entry.getCode();
+            names[i] = entry.getNameFr();
+            latestValues[i] = Double.NaN;
+            previousValues[i] = Double.NaN;
+            if (series.isEmpty()) {
+                continue;
+            }
+            // Latest is the last day and previous the day before it, each read from its first row
+            int latestIdx = series.lowerBound(series.dayAt(series.size() - 1));
+            int previousIdx = latestIdx > 0 ? series.lowerBound(series.dayAt(latestIdx - 1)) : -1;
+            maxDay = Math.max(maxDay, series.dayAt(latestIdx));
+            latestValues[i] = series.valueAt(latestIdx);
+            previousValues[i] = previousIdx >= 0 ? series.valueAt(previousIdx) : Double.NaN;
+            changes[i] = formatChange(latestValues[i], previousValues[i]);
+        }
+        latestDate = maxDay == Integer.MIN_VALUE ? null : EpochDays.format(maxDay);
+    }
+
+    /**
+     * Percentage change from a reference value formatted like "+0.12%", or null if it is undefined.
+     */
+    public static String formatChange(double current, double reference) {
+        if (Double.isNaN(current) || Double.isNaN(reference) || reference == 0.0) {
+            return null;
+        }
+        double pct = ((current - reference) / reference) * 100.0;
+        return String.format("%+,.2f%%", pct);
+    }
+
+    /**
+     * Latest publication date across all currencies, or null if no currency has rates.
+     */
+    public String getLatestDate() {
+        return latestDate;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public String codeAt(int index) {
+        return codes[index];
+    }
+
+    public String nameAt(int index) {
+        return names[index];
+    }
+
+    public double latestValueAt(int index) {
+        return latestValues[index];
+    }
+
+    public double previousValueAt(int index) {
+        return previousValues[index];
+    }
+
+    public String changeAt(int index) {
+        return changes[index];
+    }
+}
@@ -0,0 +1,354 @@
+package com.mauriexchange.code.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Growable primitive columns for the rows of one currency, filled row by row while a source is
+ * read and frozen into a {@link RateSeries} plus {@link RateDetails}. Rows may arrive in any
+ * order; {@link #build()} sorts them by day, keeping source order among rows of the same day.
+ * Rows without a usable day are set apart, in source order.
+ */
+final class RateColumnsBuilder {
+
+    private static final int MAX_EXACT_SCALE = 22;
+    private static final long MAX_EXACT_UNSCALED = 1L << 53;
+    private static final double[] POWERS_OF_TEN = new double[MAX_EXACT_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+    }
+
+    private final boolean retainAuditFields;
+    private int size;
+    private boolean sorted = true;
+
+    private int[] days;
+    private double[] values;
+    private long[] ids;
+    private long[] unscaledValues;
+    private byte[] valueScales;
+    private int[] endDays;
+    private long[] createdAt;
+    private long[] updatedAt;
+    private long[] publishedAt;
+    // Verbatim value texts, allocated once a value needs one
+    private String[] valueTexts;
+    private int[] undatedRows = new int[0];
+    private final List<String> undatedDayTexts = new ArrayList<>();
+
+    RateColumnsBuilder(boolean retainAuditFields) {
+        this(retainAuditFields, 16);
+    }
+
+    RateColumnsBuilder(boolean retainAuditFields, int initialCapacity) {
+        this.retainAuditFields = retainAuditFields;
+        int capacity = Math.max(initialCapacity, 1);
+        days = new int[capacity];
+        values = new double[capacity];
+        ids = new long[capacity];
+        unscaledValues = new long[capacity];
+        valueScales = new byte[capacity];
+        endDays = new int[capacity];
+        if (retainAuditFields) {
+            createdAt = new long[capacity];
+            updatedAt = new long[capacity];
+            publishedAt = new long[capacity];
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean retainsAuditFields() {
+        return retainAuditFields;
+    }
+
+    /**
+     * Start a new row with every field absent. The row only becomes part of the columns once
+     * {@link #commitRow(int)} is called, so an invalid row can simply be abandoned.
+     */
+    void beginRow() {
+        if (size == days.length) {
+            grow();
+        }
+        values[size] = Double.NaN;
+        ids[size] = RateDetails.ABSENT;
+        unscaledValues[size] = RateDetails.ABSENT;
+        valueScales[size] = 0;
+        endDays[size] = RateDetails.NO_DAY;
+        if (retainAuditFields) {
+            createdAt[size] = RateDetails.ABSENT;
+            updatedAt[size] = RateDetails.ABSENT;
+            publishedAt[size] = RateDetails.ABSENT;
+        }
+        if (valueTexts != null) {
+            valueTexts[size] = null;
+        }
+    }
+
+    void id(long id) {
+        ids[size] = id;
+    }
+
+    void endDay(int endDay) {
+        endDays[size] = endDay;
+    }
+
+    void createdAt(long micros) {
+        if (retainAuditFields) createdAt[size] = micros;
+    }
+
+    void updatedAt(long micros) {
+        if (retainAuditFields) updatedAt[size] = micros;
+    }
+
+    void publishedAt(long micros) {
+        if (retainAuditFields) publishedAt[size] = micros;
+    }
+
+    /**
+     * Set the value of the current row from its decimal text. Plain decimals are decoded in place,
+     * keeping the exact published digits; anything else falls back to {@link Double#parseDouble}.
+     * Texts that the digits would not print back identically ("+39.8", ".5", "-0", "1e3"...) are also
+     * kept verbatim.
+     */
+    void value(char[] buffer, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        boolean negative = false;
+        boolean plus = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            plus = !negative;
+            i++;
+        }
+        int integerStart = i;
+        int integerDigits = 0;
+        long unscaled = 0;
+        int scale = -1;
+        int digits = 0;
+        for (; i < end; i++) {
+            char c = buffer[i];
+            if (c >= '0' && c <= '9') {
+                if (unscaled > (Long.MAX_VALUE - 9) / 10) {
+                    break;
+                }
+                unscaled = unscaled * 10 + (c - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                } else {
+                    integerDigits++;
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                break;
+            }
+        }
+        if (i == end && digits > 0 && scale <= MAX_EXACT_SCALE) {
+            int effectiveScale = Math.max(scale, 0);
+            long signed = negative ? -unscaled : unscaled;
+            // Division of two exactly representable doubles is correctly rounded, so this equals parseDouble
+            values[size] = unscaled <= MAX_EXACT_UNSCALED
+                    ? signed / POWERS_OF_TEN[effectiveScale]
+                    : parseOrNaN(new String(buffer, offset, length));
+            // Canonical when BigDecimal prints the digits back as they were published
+            boolean canonical = !plus && !(negative && unscaled == 0) && scale != 0 && integerDigits > 0
+                    && (integerDigits == 1 || buffer[integerStart] != '0');
+            if (canonical) {
+                unscaledValues[size] = signed;
+                valueScales[size] = (byte) effectiveScale;
+            } else {
+                valueText(new String(buffer, offset, length));
+            }
+            return;
+        }
+        String text = new String(buffer, offset, length);
+        values[size] = parseOrNaN(text);
+        valueText(text);
+    }
+
+    void value(String text) {
+        if (text != null) {
+            value(text.toCharArray(), 0, text.length());
+        }
+    }
+
+    /**
+     * Make the current row part of the columns.
+     */
+    void commitRow(int day) {
+        days[size] = day;
+        if (size > 0 && days[size - 1] > day) {
+            sorted = false;
+        }
+        size++;
+    }
+
+    /**
+     * Make the current row part of the rows without a usable day.
+     * @param dayText Day as published, or null if it was missing
+     */
+    void commitUndatedRow(String dayText) {
+        if (undatedRows.length == undatedDayTexts.size()) {
+            undatedRows = Arrays.copyOf(undatedRows, undatedRows.length * 2 + 4);
+        }
+        undatedRows[undatedDayTexts.size()] = size;
+        undatedDayTexts.add(dayText);
+        days[size] = 0;
+        size++;
+    }
+
+    /**
+     * Freeze the collected rows. The builder must not be used afterwards.
+     */
+    Columns build() {
+        if (size == 0) {
+            return new Columns(RateSeries.EMPTY, RateDetails.EMPTY, UndatedRates.EMPTY);
+        }
+        int undatedCount = undatedDayTexts.size();
+        int[] datedOrder = datedOrder(undatedCount);
+        RateSeries series = new RateSeries(permute(days, datedOrder), permute(values, datedOrder));
+        if (undatedCount == 0) {
+            return new Columns(series, details(datedOrder), UndatedRates.EMPTY);
+        }
+        int[] undatedOrder = Arrays.copyOf(undatedRows, undatedCount);
+        UndatedRates undated = new UndatedRates(Collections.unmodifiableList(undatedDayTexts), details(undatedOrder));
+        return new Columns(series, details(datedOrder), undated);
+    }
+
+    record Columns(RateSeries series, RateDetails details, UndatedRates undated) {}
+
+    /**
+     * Rows with a day, sorted by day and in source order among rows of the same day.
+     */
+    private int[] datedOrder(int undatedCount) {
+        int dated = size - undatedCount;
+        int[] order = new int[dated];
+        if (sorted && undatedCount == 0) {
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            return order;
+        }
+        // day in the high half, source position in the low half: a primitive, stable sort key
+        long[] keys = new long[dated];
+        int next = 0;
+        int undated = 0;
+        for (int i = 0; i < size; i++) {
+            if (undated < undatedCount && undatedRows[undated] == i) {
+                undated++;
+                continue;
+            }
+            keys[next++] = ((long) days[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < dated; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    private RateDetails details(int[] order) {
+        return new RateDetails(
+                permute(ids, order),
+                permute(unscaledValues, order),
+                permute(valueScales, order),
+                permute(endDays, order),
+                retainAuditFields ? permute(createdAt, order) : null,
+                retainAuditFields ? permute(updatedAt, order) : null,
+                retainAuditFields ? permute(publishedAt, order) : null,
+                valueTexts(order));
+    }
+
+    private ValueTexts valueTexts(int[] order) {
+        if (valueTexts == null) {
+            return ValueTexts.NONE;
+        }
+        int count = 0;
+        for (int row : order) {
+            if (valueTexts[row] != null) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return ValueTexts.NONE;
+        }
+        int[] rows = new int[count];
+        String[] texts = new String[count];
+        int next = 0;
+        for (int i = 0; i < order.length; i++) {
+            String text = valueTexts[order[i]];
+            if (text != null) {
+                rows[next] = i;
+                texts[next++] = text;
+            }
+        }
+        return new ValueTexts(rows, texts, count);
+    }
+
+    private void valueText(String text) {
+        if (valueTexts == null) {
+            valueTexts = new String[days.length];
+        }
+        valueTexts[size] = text;
+    }
+
+    private void grow() {
+        int capacity = days.length + (days.length >> 1) + 1;
+        days = Arrays.copyOf(days, capacity);
+        values = Arrays.copyOf(values, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        unscaledValues = Arrays.copyOf(unscaledValues, capacity);
+        valueScales = Arrays.copyOf(valueScales, capacity);
+        endDays = Arrays.copyOf(endDays, capacity);
+        if (retainAuditFields) {
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            updatedAt = Arrays.copyOf(updatedAt, capacity);
+            publishedAt = Arrays.copyOf(publishedAt, capacity);
+        }
+        if (valueTexts != null) {
+            valueTexts = Arrays.copyOf(valueTexts, capacity);
+        }
+    }
+
+    private static double parseOrNaN(String text) {
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException ex) {
+            return Double.NaN;
+        }
+    }
+
+    private static int[] permute(int[] column, int[] order) {
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) result[i] = column[order[i]];
+        return result;
+    }
+
+    private static long[] permute(long[] column, int[] order) {
+        long[] result = new long[order.length];
+        for (int i = 0; i < order.length; i++) result[i] = column[order[i]];
+        return result;
+    }
+
+    private static double[] permute(double[] column, int[] order) {
+        double[] result = new double[order.length];
+        for (int i = 0; i < order.length; i++) result[i] = column[order[i]];
+        return result;
+    }
+
+    private static byte[] permute(byte[] column, int[] order) {
+        byte[] result = new byte[order.length];
+        for (int i = 0; i < order.length; i++) result[i] = column[order[i]];
+        return result;
+    }
+}
@@ -0,0 +1,153 @@
+package com.mauriexchange.code.store;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Per-row source fields that only the full currency views need: row id, the value exactly as
+ * published, audit timestamps and end date. Stored as primitive columns parallel to a
+ * {@link RateSeries}; audit timestamp columns are null when the loader was told not to retain them.
+ * Like the series, columns are heap arrays or views of a memory-mapped binary snapshot. A value is kept
+ * as unscaled digits and a scale when its text is a plain decimal in canonical form, and verbatim in
+ * {@link ValueTexts} otherwise.
+ */
+public final class RateDetails {
+
+    /** Marks a missing id or a value that is not kept as unscaled digits. */
+    static final long ABSENT = Long.MIN_VALUE;
+    /** Marks a missing end date. */
+    static final int NO_DAY = Integer.MIN_VALUE;
+
+    public static final RateDetails EMPTY = new RateDetails(
+            new long[0], new long[0], new byte[0], new int[0], null, null, null, ValueTexts.NONE);
+
+    private final LongBuffer ids;
+    private final LongBuffer unscaledValues;
+    private final ByteBuffer valueScales;
+    private final IntBuffer endDays;
+    private final LongBuffer createdAtMicros;
+    private final LongBuffer updatedAtMicros;
+    private final LongBuffer publishedAtMicros;
+    private final ValueTexts valueTexts;
+
+    RateDetails(long[] ids, long[] unscaledValues, byte[] valueScales, int[] endDays,
+                long[] createdAtMicros, long[] updatedAtMicros, long[] publishedAtMicros, ValueTexts valueTexts) {
+        this(LongBuffer.wrap(ids), LongBuffer.wrap(unscaledValues), ByteBuffer.wrap(valueScales), IntBuffer.wrap(endDays),
+                wrap(createdAtMicros), wrap(updatedAtMicros), wrap(publishedAtMicros), valueTexts);
+    }
+
+    RateDetails(LongBuffer ids, LongBuffer unscaledValues, ByteBuffer valueScales, IntBuffer endDays,
+                LongBuffer createdAtMicros, LongBuffer updatedAtMicros, LongBuffer publishedAtMicros,
+                ValueTexts valueTexts) {
+        this.ids = ids;
+        this.unscaledValues = unscaledValues;
+        this.valueScales = valueScales;
+        this.endDays = endDays;
+        this.createdAtMicros = createdAtMicros;
+        this.updatedAtMicros = updatedAtMicros;
+        this.publishedAtMicros = publishedAtMicros;
+        this.valueTexts = valueTexts;
+    }
+
+    public int size() {
+        return ids.limit();
+    }
+
+    public Long idAt(int index) {
+        long id = ids.get(index);
+        return id == ABSENT ? null : id;
+    }
+
+    /**
+     * The value exactly as published (e.g. "39.8000"), or null when the source value was missing.
+     */
+    public String valueTextAt(int index) {
+        long unscaled = unscaledValues.get(index);
+        if (unscaled == ABSENT) {
+            return valueTexts.at(index);
+        }
+        return BigDecimal.valueOf(unscaled, valueScales.get(index)).toPlainString();
+    }
+
+    public String endDateAt(int index) {
+        int endDay = endDays.get(index);
+        return endDay == NO_DAY ? null : EpochDays.format(endDay);
+    }
+
+    public LocalDateTime createdAt(int index) {
+        return timestamp(createdAtMicros, index);
+    }
+
+    public LocalDateTime updatedAt(int index) {
+        return timestamp(updatedAtMicros, index);
+    }
+
+    public LocalDateTime publishedAt(int index) {
+        return timestamp(publishedAtMicros, index);
+    }
+
+    /**
+     * Whether the audit timestamp columns were retained.
+     */
+    boolean hasAuditFields() {
+        return createdAtMicros != null;
+    }
+
+    // Raw column access for the binary snapshot writer
+
+    long rawIdAt(int index) {
+        return ids.get(index);
+    }
+
+    long rawUnscaledValueAt(int index) {
+        return unscaledValues.get(index);
+    }
+
+    byte rawValueScaleAt(int index) {
+        return valueScales.get(index);
+    }
+
+    int rawEndDayAt(int index) {
+        return endDays.get(index);
+    }
+
+    long rawCreatedAtMicros(int index) {
+        return createdAtMicros.get(index);
+    }
+
+    long rawUpdatedAtMicros(int index) {
+        return updatedAtMicros.get(index);
+    }
+
+    long rawPublishedAtMicros(int index) {
+        return publishedAtMicros.get(index);
+    }
+
+    ValueTexts valueTexts() {
+        return valueTexts;
+    }
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime timestamp(LongBuffer column, int index) {
+        if (column == null || column.get(index) == ABSENT) {
+            return null;
+        }
+        return fromMicros(column.get(index));
+    }
+
+    private static LongBuffer wrap(long[] column) {
+        return column == null ? null : LongBuffer.wrap(column);
+    }
+}
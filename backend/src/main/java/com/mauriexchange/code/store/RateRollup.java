@@ -0,0 +1,256 @@
+package com.mauriexchange.code.store;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open/high/low/close/average of a rate series per calendar period, as parallel columns sorted by
+ * period. Built once per snapshot; only periods with at least one valid rate have a bucket, and
+ * unparseable (NaN) rates are ignored. A day published several times counts once, from its first row,
+ * as in {@link RateSeries#indexOf(int)}.
+ *
+ * <p>Closed buckets live in append-only arrays shared with the rollups of later snapshots, the last
+ * bucket is held by each rollup itself since new rates may still update it. {@link #extend} therefore
+ * only aggregates the appended rates, without copying or touching what older snapshots read.</p>
+ */
+public final class RateRollup {
+
+    public static final RateRollup EMPTY = new RateRollup(new Columns(0, 0), 0, null);
+
+    private final Columns columns;
+    private final int closed;
+    private final Bucket last;
+
+    private RateRollup(Columns columns, int closed, Bucket last) {
+        this.columns = columns;
+        this.closed = closed;
+        this.last = last;
+    }
+
+    /**
+     * Aggregate a day-sorted series in a single pass.
+     */
+    public static RateRollup of(RateSeries series, RollupInterval interval) {
+        return EMPTY.extend(series, 0, interval);
+    }
+
+    /**
+     * Rollup of the same series after rates were appended to it.
+     * @param series The extended series, whose rows before {@code from} are the ones this rollup aggregated
+     * @param from Index of the first appended row
+     */
+    public RateRollup extend(RateSeries series, int from, RollupInterval interval) {
+        Columns target = columns;
+        int count = closed;
+        Bucket bucket = last != null ? last.copy() : null;
+        for (int i = from; i < series.size(); i++) {
+            double value = series.valueAt(i);
+            int day = series.dayAt(i);
+            // Later rows of a day, including one repeating the last day this rollup aggregated
+            if (Double.isNaN(value) || i > 0 && series.dayAt(i - 1) == day) {
+                continue;
+            }
+            if (bucket != null && day <= bucket.endDay) {
+                bucket.add(value);
+                continue;
+            }
+            if (bucket != null) {
+                // The running bucket is complete: move it into the shared columns
+                target = target.claim(count, series.size() - i);
+                target.set(count++, bucket);
+            }
+            LocalDate start = interval.periodStart(LocalDate.ofEpochDay(day));
+            bucket = new Bucket((int) start.toEpochDay(), (int) interval.nextPeriodStart(start).toEpochDay() - 1, value);
+        }
+        if (target == columns && count == closed && bucket == null) {
+            return this;
+        }
+        return new RateRollup(target, count, bucket);
+    }
+
+    public int size() {
+        return last != null ? closed + 1 : closed;
+    }
+
+    /**
+     * First calendar day of the bucket's period.
+     */
+    public int startDayAt(int index) {
+        return index < closed ? columns.startDays[index] : last.startDay;
+    }
+
+    /**
+     * Last calendar day of the bucket's period.
+     */
+    public int endDayAt(int index) {
+        return index < closed ? columns.endDays[index] : last.endDay;
+    }
+
+    public double openAt(int index) {
+        return index < closed ? columns.opens[index] : last.open;
+    }
+
+    public double highAt(int index) {
+        return index < closed ? columns.highs[index] : last.high;
+    }
+
+    public double lowAt(int index) {
+        return index < closed ? columns.lows[index] : last.low;
+    }
+
+    public double closeAt(int index) {
+        return index < closed ? columns.closes[index] : last.close;
+    }
+
+    public double averageAt(int index) {
+        return index < closed ? columns.averages[index] : last.sum / last.count;
+    }
+
+    /**
+     * Number of rates aggregated into the bucket.
+     */
+    public int countAt(int index) {
+        return index < closed ? columns.counts[index] : last.count;
+    }
+
+    /**
+     * Index of the first bucket whose period ends on or after the given day (size() if none).
+     */
+    public int firstEndingOnOrAfter(int day) {
+        int lo = 0;
+        int hi = size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (endDayAt(mid) < day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Index of the first bucket whose period starts after the given day (size() if none).
+     */
+    public int firstStartingAfter(int day) {
+        int lo = 0;
+        int hi = size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (startDayAt(mid) <= day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Backing arrays of closed buckets. A rollup only reads indexes below its own closed count.
+     */
+    private static final class Columns {
+        final int[] startDays;
+        final int[] endDays;
+        final double[] opens;
+        final double[] highs;
+        final double[] lows;
+        final double[] closes;
+        final double[] averages;
+        final int[] counts;
+        // Buckets written so far; only the rollup whose closed count equals it may append in place
+        final AtomicInteger used;
+
+        Columns(int capacity, int used) {
+            startDays = new int[capacity];
+            endDays = new int[capacity];
+            opens = new double[capacity];
+            highs = new double[capacity];
+            lows = new double[capacity];
+            closes = new double[capacity];
+            averages = new double[capacity];
+            counts = new int[capacity];
+            this.used = new AtomicInteger(used);
+        }
+
+        /**
+         * Columns in which bucket {@code index} may be written: these ones if the slot is free, otherwise
+         * a copy of the first {@code index} buckets with room for the expected number of further ones.
+         */
+        Columns claim(int index, int expected) {
+            if (index < startDays.length && used.compareAndSet(index, index + 1)) {
+                return this;
+            }
+            Columns copy = new Columns(Math.max(16, index + Math.min(expected, index / 2 + 16)), index + 1);
+            System.arraycopy(startDays, 0, copy.startDays, 0, index);
+            System.arraycopy(endDays, 0, copy.endDays, 0, index);
+            System.arraycopy(opens, 0, copy.opens, 0, index);
+            System.arraycopy(highs, 0, copy.highs, 0, index);
+            System.arraycopy(lows, 0, copy.lows, 0, index);
+            System.arraycopy(closes, 0, copy.closes, 0, index);
+            System.arraycopy(averages, 0, copy.averages, 0, index);
+            System.arraycopy(counts, 0, copy.counts, 0, index);
+            return copy;
+        }
+
+        void set(int index, Bucket bucket) {
+            startDays[index] = bucket.startDay;
+            endDays[index] = bucket.endDay;
+            opens[index] = bucket.open;
+            highs[index] = bucket.high;
+            lows[index] = bucket.low;
+            closes[index] = bucket.close;
+            averages[index] = bucket.sum / bucket.count;
+            counts[index] = bucket.count;
+        }
+    }
+
+    /**
+     * The period still open to new rates.
+     */
+    private static final class Bucket {
+        final int startDay;
+        final int endDay;
+        final double open;
+        double high;
+        double low;
+        double close;
+        double sum;
+        int count;
+
+        Bucket(int startDay, int endDay, double value) {
+            this.startDay = startDay;
+            this.endDay = endDay;
+            this.open = value;
+            this.high = value;
+            this.low = value;
+            this.close = value;
+            this.sum = value;
+            this.count = 1;
+        }
+
+        private Bucket(Bucket other) {
+            this.startDay = other.startDay;
+            this.endDay = other.endDay;
+            this.open = other.open;
+            this.high = other.high;
+            this.low = other.low;
+            this.close = other.close;
+            this.sum = other.sum;
+            this.count = other.count;
+        }
+
+        void add(double value) {
+            high = Math.max(high, value);
+            low = Math.min(low, value);
+            close = value;
+            sum += value;
+            count++;
+        }
+
+        Bucket copy() {
+            return new Bucket(this);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.mauriexchange.code.store;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append-only backing arrays of a currency's columns, shared by successive snapshots.
+ *
+ * <p>Every snapshot sees a prefix of the arrays through {@link RateSeries} and {@link RateDetails}
+ * views limited to its own row count, so rows written past that count are invisible to it. Appending
+ * to the newest version claims the free capacity after its rows and writes there in place; appending to
+ * any other version (a sibling already claimed that space) or beyond the capacity copies the rows into
+ * a new segment with headroom. Either way older snapshots keep reading unchanged data, and appends cost
+ * O(new rows) amortized.</p>
+ */
+final class RateSegment {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final int[] days;
+    private final double[] values;
+    private final long[] ids;
+    private final long[] unscaledValues;
+    private final byte[] valueScales;
+    private final int[] endDays;
+    private final long[] createdAt;
+    private final long[] updatedAt;
+    private final long[] publishedAt;
+    // Rows written so far; only the version whose size equals it may extend in place
+    private final AtomicInteger used;
+    // Verbatim value texts by row, appended by whoever extends in place; views read a prefix
+    private int[] textRows = new int[0];
+    private String[] texts = new String[0];
+    private int textCount;
+
+    private RateSegment(int capacity, boolean auditFields, int used) {
+        days = new int[capacity];
+        values = new double[capacity];
+        ids = new long[capacity];
+        unscaledValues = new long[capacity];
+        valueScales = new byte[capacity];
+        endDays = new int[capacity];
+        createdAt = auditFields ? new long[capacity] : null;
+        updatedAt = auditFields ? new long[capacity] : null;
+        publishedAt = auditFields ? new long[capacity] : null;
+        this.used = new AtomicInteger(used);
+    }
+
+    /**
+     * Append rows {@code [from, extra.size())} of another series to a currency's columns.
+     * @param segment Segment the current columns are views of, or null if they were loaded otherwise
+     * @return the segment holding the current rows followed by the appended ones
+     */
+    static RateSegment append(RateSegment segment, RateSeries series, RateDetails details,
+                              RateSeries extra, RateDetails extraDetails, int from) {
+        int size = series.size();
+        int total = size + extra.size() - from;
+        RateSegment target = segment;
+        if (target == null || total > target.days.length || !target.used.compareAndSet(size, total)) {
+            boolean auditFields = series.isEmpty() ? extraDetails.hasAuditFields() : details.hasAuditFields();
+            target = new RateSegment(Math.max(MIN_CAPACITY, total + (total >> 1)), auditFields, total);
+            target.copyRows(series, details, 0, 0, size);
+        }
+        target.copyRows(extra, extraDetails, from, size, total - size);
+        return target;
+    }
+
+    RateSeries series(int size) {
+        return new RateSeries(IntBuffer.wrap(days, 0, size), DoubleBuffer.wrap(values, 0, size));
+    }
+
+    RateDetails details(int size) {
+        int count = textCount;
+        while (count > 0 && textRows[count - 1] >= size) {
+            count--;
+        }
+        return new RateDetails(LongBuffer.wrap(ids, 0, size), LongBuffer.wrap(unscaledValues, 0, size),
+                ByteBuffer.wrap(valueScales, 0, size), IntBuffer.wrap(endDays, 0, size),
+                createdAt != null ? LongBuffer.wrap(createdAt, 0, size) : null,
+                updatedAt != null ? LongBuffer.wrap(updatedAt, 0, size) : null,
+                publishedAt != null ? LongBuffer.wrap(publishedAt, 0, size) : null,
+                count == 0 ? ValueTexts.NONE : new ValueTexts(textRows, texts, count));
+    }
+
+    private void addText(int row, String text) {
+        if (textCount == textRows.length) {
+            // Views keep the arrays they were given, so growing never disturbs them
+            textRows = Arrays.copyOf(textRows, textCount * 2 + 4);
+            texts = Arrays.copyOf(texts, textCount * 2 + 4);
+        }
+        textRows[textCount] = row;
+        texts[textCount++] = text;
+    }
+
+    private void copyRows(RateSeries series, RateDetails details, int from, int to, int count) {
+        boolean sourceAudit = details.hasAuditFields();
+        for (int i = 0; i < count; i++) {
+            int src = from + i;
+            int dst = to + i;
+            days[dst] = series.dayAt(src);
+            values[dst] = series.valueAt(src);
+            ids[dst] = details.rawIdAt(src);
+            unscaledValues[dst] = details.rawUnscaledValueAt(src);
+            valueScales[dst] = details.rawValueScaleAt(src);
+            endDays[dst] = details.rawEndDayAt(src);
+            if (details.rawUnscaledValueAt(src) == RateDetails.ABSENT) {
+                String text = details.valueTexts().at(src);
+                if (text != null) {
+                    addText(dst, text);
+                }
+            }
+            if (createdAt != null) {
+                createdAt[dst] = sourceAudit ? details.rawCreatedAtMicros(src) : RateDetails.ABSENT;
+                updatedAt[dst] = sourceAudit ? details.rawUpdatedAtMicros(src) : RateDetails.ABSENT;
+                publishedAt[dst] = sourceAudit ? details.rawPublishedAtMicros(src) : RateDetails.ABSENT;
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.mauriexchange.code.store;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Immutable official-rate series of one currency stored as two parallel primitive columns:
+ * epoch days sorted ascending and the matching values. Rows whose value could not be parsed
+ * are kept with {@link Double#NaN} so that date lookups still line up with the source.
+ * Columns are heap arrays for a parsed source, or views of a memory-mapped binary snapshot.
+ * When a day has several rows, the first one is that day's rate for every lookup.
+ */
+public final class RateSeries {
+
+    public static final RateSeries EMPTY = new RateSeries(new int[0], new double[0]);
+
+    private final IntBuffer days;
+    private final DoubleBuffer values;
+    private final int size;
+
+    /**
+     * Wrap already sorted columns. Arrays are owned by the series afterwards and must not be mutated.
+     */
+    RateSeries(int[] days, double[] values) {
+        this(IntBuffer.wrap(days), DoubleBuffer.wrap(values));
+    }
+
+    /**
+     * Wrap already sorted columns read with absolute indexes from 0 to their limit.
+     */
+    RateSeries(IntBuffer days, DoubleBuffer values) {
+        if (days.limit() != values.limit()) {
+            throw new IllegalArgumentException("Day and value columns must have the same length");
+        }
+        this.days = days;
+        this.values = values;
+        this.size = days.limit();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int dayAt(int index) {
+        return days.get(index);
+    }
+
+    public double valueAt(int index) {
+        return values.get(index);
+    }
+
+    /**
+     * Days of rows [from, to) as a new array.
+     */
+    public int[] copyDays(int from, int to) {
+        int[] copy = new int[to - from];
+        days.get(from, copy);
+        return copy;
+    }
+
+    /**
+     * Values of rows [from, to) as a new array.
+     */
+    public double[] copyValues(int from, int to) {
+        double[] copy = new double[to - from];
+        values.get(from, copy);
+        return copy;
+    }
+
+    /**
+     * Index of the first row published on the given day, or -1 if there is none.
+     */
+    public int indexOf(int day) {
+        int idx = lowerBound(day);
+        return idx < size && days.get(idx) == day ? idx : -1;
+    }
+
+    /**
+     * Index of the latest row with a valid value published on or before the given day, or -1 if there is none.
+     */
+    public int floorValidIndex(int day) {
+        int idx = upperBound(day) - 1;
+        while (idx >= 0) {
+            // First valid row of the latest day that has one
+            int first = lowerBound(days.get(idx));
+            for (int i = first; i <= idx; i++) {
+                if (!Double.isNaN(values.get(i))) {
+                    return i;
+                }
+            }
+            idx = first - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Index of the first row whose day is on or after the given day (size() if none).
+     */
+    public int lowerBound(int day) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days.get(mid) < day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Index of the first row whose day is strictly after the given day (size() if none).
+     */
+    public int upperBound(int day) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days.get(mid) <= day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
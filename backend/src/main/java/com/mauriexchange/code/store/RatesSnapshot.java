@@ -0,0 +1,253 @@
+package com.mauriexchange.code.store;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable, query-ready view of a loaded dataset. Built once per load so that request
+ * handling only does binary searches and array slices over primitive columns.
+ *
+ * <p>Assembling a snapshot only reads each currency's descriptive fields and its last rows. Rollups,
+ * the one derived table that aggregates every row, are built per currency and interval on first use,
+ * so a memory-mapped snapshot starts in time independent of its history depth.</p>
+ */
+public final class RatesSnapshot {
+
+    private final long version;
+    private final SourceStamp sourceStamp;
+    private final Instant loadedAt;
+    private final Duration loadDuration;
+    private final long recordCount;
+
+    private final List<CurrencyEntry> currencies;
+    private final Map<String, CurrencyEntry> byCode;
+    private final Map<Long, CurrencyEntry> byId;
+    private final LatestRatesTable latestRates;
+    private final CrossRateTable crossRates;
+    private final CurrencySearchIndex searchIndex;
+    private final CurrencyKeyOrder keyOrder;
+    private final Map<CurrencyEntry, Rollups> rollups;
+
+    private RatesSnapshot(List<CurrencyEntry> currencies, long version, SourceStamp sourceStamp, long startedNanos,
+                          RatesSnapshot base, Map<CurrencyEntry, CurrencyEntry> extendedFrom) {
+        this.version = version;
+        this.sourceStamp = sourceStamp;
+        this.currencies = currencies;
+        this.byCode = new HashMap<>(currencies.size() * 2);
+        this.byId = new HashMap<>(currencies.size() * 2);
+        for (CurrencyEntry entry : currencies) {
+            // First occurrence wins, as with the former linear findFirst()
+            if (entry.getCode() != null) {
+                byCode.putIfAbsent(normalizeCode(entry.getCode()).intern(), entry);
+            }
+            if (entry.getId() != null) {
+                byId.putIfAbsent(entry.getId(), entry);
+            }
+        }
+        this.latestRates = new LatestRatesTable(currencies);
+        this.crossRates = new CrossRateTable(currencies);
+        this.searchIndex = new CurrencySearchIndex(currencies);
+        this.keyOrder = new CurrencyKeyOrder(currencies);
+        this.rollups = new IdentityHashMap<>(currencies.size() * 2);
+        for (CurrencyEntry entry : currencies) {
+            CurrencyEntry origin = extendedFrom.getOrDefault(entry, entry);
+            Rollups previous = base != null ? base.rollups.get(origin) : null;
+            if (previous != null && origin == entry) {
+                rollups.put(entry, previous);
+            } else if (previous != null) {
+                rollups.put(entry, new Rollups(entry.getSeries(), previous, origin.getSeries().size()));
+            } else {
+                rollups.put(entry, new Rollups(entry.getSeries(), null, 0));
+            }
+        }
+        this.recordCount = currencies.stream().mapToLong(entry -> entry.getSeries().size()).sum();
+        this.loadedAt = Instant.now();
+        this.loadDuration = Duration.ofNanos(System.nanoTime() - startedNanos);
+    }
+
+    /**
+     * Monotonic number of this snapshot, incremented on every successful load.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public SourceStamp getSourceStamp() {
+        return sourceStamp;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Time spent reading the source and building this snapshot.
+     */
+    public Duration getLoadDuration() {
+        return loadDuration;
+    }
+
+    /**
+     * Total number of rate rows across all currencies.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public List<CurrencyEntry> currencies() {
+        return currencies;
+    }
+
+    /**
+     * Latest/previous rate pairs of every currency, precomputed for this snapshot.
+     */
+    public LatestRatesTable latestRates() {
+        return latestRates;
+    }
+
+    /**
+     * Conversion rates between all currencies with a latest rate, precomputed for this snapshot.
+     */
+    public CrossRateTable crossRates() {
+        return crossRates;
+    }
+
+    /**
+     * Folded name and code search over this snapshot's currencies.
+     */
+    public CurrencySearchIndex searchIndex() {
+        return searchIndex;
+    }
+
+    /**
+     * This snapshot's currencies in stable (code, id) order, for cursor pagination.
+     */
+    public CurrencyKeyOrder keyOrder() {
+        return keyOrder;
+    }
+
+    /**
+     * Per-period OHLC buckets of a currency of this snapshot, built on first use and kept for the snapshot.
+     */
+    public RateRollup rollup(CurrencyEntry entry, RollupInterval interval) {
+        Rollups byInterval = rollups.get(entry);
+        return byInterval != null ? byInterval.get(interval) : RateRollup.EMPTY;
+    }
+
+    /**
+     * Number of rollups built so far, for checking that assembling a snapshot did not aggregate any rows.
+     */
+    int builtRollupCount() {
+        int built = 0;
+        for (Rollups byInterval : rollups.values()) {
+            built += byInterval.builtCount();
+        }
+        return built;
+    }
+
+    /**
+     * Resolve a currency by an already normalized code (see {@link #normalizeCode(String)}).
+     */
+    public Optional<CurrencyEntry> findByNormalizedCode(String normalizedCode) {
+        return Optional.ofNullable(byCode.get(normalizedCode));
+    }
+
+    /**
+     * Resolve a currency by code, ignoring case.
+     */
+    public Optional<CurrencyEntry> findByCode(String code) {
+        return code == null ? Optional.empty() : findByNormalizedCode(normalizeCode(code));
+    }
+
+    public Optional<CurrencyEntry> findById(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(byId.get(id));
+    }
+
+    /**
+     * Canonical form of a currency code used as index key: upper case, locale independent.
+     */
+    public static String normalizeCode(String code) {
+        return code.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Assemble a snapshot from loaded currency entries.
+     * @param currencies Entries in source order
+     * @param version Snapshot version
+     * @param sourceStamp Stamp of the file the data was read from
+     * @param startedNanos {@link System#nanoTime()} at the start of the load, to record its duration
+     */
+    public static RatesSnapshot of(List<CurrencyEntry> currencies, long version, SourceStamp sourceStamp, long startedNanos) {
+        return new RatesSnapshot(Collections.unmodifiableList(currencies), version, sourceStamp, startedNanos,
+                null, Map.of());
+    }
+
+    /**
+     * Assemble the snapshot following {@code base} after rates were appended to some of its currencies.
+     * Rollups of untouched currencies are shared and those of extended ones only aggregate the new rows.
+     * @param extendedFrom Entry of {@code base} each extended entry was derived from; its rows are a prefix of the new ones
+     */
+    static RatesSnapshot appended(RatesSnapshot base, List<CurrencyEntry> currencies,
+                                  Map<CurrencyEntry, CurrencyEntry> extendedFrom, long version, long startedNanos) {
+        return new RatesSnapshot(Collections.unmodifiableList(currencies), version, base.getSourceStamp(), startedNanos,
+                base, extendedFrom);
+    }
+
+    /**
+     * Rollups of one currency, one per interval, each built the first time it is asked for.
+     */
+    private static final class Rollups {
+
+        private final RateSeries series;
+        // Rollups of the previous snapshot already built when this one was assembled; the others start over
+        private final RateRollup[] previous;
+        private final int previousSize;
+        private final AtomicReferenceArray<RateRollup> built = new AtomicReferenceArray<>(RollupInterval.values().length);
+
+        Rollups(RateSeries series, Rollups extendedFrom, int extendedFromSize) {
+            this.series = series;
+            this.previousSize = extendedFromSize;
+            if (extendedFrom == null) {
+                this.previous = null;
+            } else {
+                // Only built rollups are kept, so snapshots never chain back to older ones
+                this.previous = new RateRollup[RollupInterval.values().length];
+                for (int i = 0; i < previous.length; i++) {
+                    previous[i] = extendedFrom.built.get(i);
+                }
+            }
+        }
+
+        RateRollup get(RollupInterval interval) {
+            int slot = interval.ordinal();
+            RateRollup rollup = built.get(slot);
+            if (rollup == null) {
+                RateRollup base = previous != null ? previous[slot] : null;
+                // Two threads may race here: rollups tolerate concurrent extension, and the first one stored wins
+                rollup = base != null ? base.extend(series, previousSize, interval) : RateRollup.of(series, interval);
+                if (!built.compareAndSet(slot, null, rollup)) {
+                    rollup = built.get(slot);
+                }
+            }
+            return rollup;
+        }
+
+        int builtCount() {
+            int count = 0;
+            for (int i = 0; i < built.length(); i++) {
+                if (built.get(i) != null) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.mauriexchange.code.store;
+
+import com.mauriexchange.code.config.DataSourceConfig;
+import com.mauriexchange.code.exception.DataNotFoundException;
+import com.mauriexchange.code.exception.DataProcessingException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the currently served {@link RatesSnapshot}. Readers get the snapshot through a single
+ * volatile read and never lock; a reload builds the next snapshot completely off the request
+ * path and publishes it with one atomic swap. A source that fails to load leaves the previous
+ * snapshot in service.
+ *
+ * <p>Every successful JSON load is also written as a {@link BinarySnapshotFile}. At startup that file is
+ * memory-mapped instead of parsing the JSON when it was built from the current source, so a restart
+ * costs a directory scan rather than a full parse and rate columns stay off the heap.</p>
+ *
+ * <p>Newly published rates can also arrive as a delta file next to the source. Its rows are appended to
+ * the served snapshot (see {@link SnapshotDelta}) at a cost proportional to the delta. A full reload of
+ * the source supersedes the delta, which is then re-applied on top: rows already in the source are skipped.</p>
+ */
+@Slf4j
+@Component
+public class RatesSnapshotStore {
+
+    private final DataSourceConfig dataSourceConfig;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final JsonSnapshotLoader loader;
+    private final AtomicReference<RatesSnapshot> current = new AtomicReference<>();
+    // Serializes writers only; readers go through current.get()
+    private final Object reloadLock = new Object();
+
+    private volatile SourceStamp lastFailedStamp;
+    private volatile SourceStamp appliedDeltaStamp;
+    private volatile String lastFailure;
+
+    public RatesSnapshotStore(DataSourceConfig dataSourceConfig, ApplicationEventPublisher eventPublisher) {
+        this.dataSourceConfig = dataSourceConfig;
+        this.eventPublisher = eventPublisher;
+        this.loader = new JsonSnapshotLoader(dataSourceConfig.isRetainAuditFields());
+    }
+
+    @PostConstruct
+    public void init() {
+        Path path = Paths.get(dataSourceConfig.getPath());
+        synchronized (reloadLock) {
+            RatesSnapshot mapped = mapBinarySnapshot(path);
+            if (mapped != null) {
+                publish(mapped);
+                applyDeltaIfChanged();
+                return;
+            }
+            log.info("Loading currency data from: {}", dataSourceConfig.getPath());
+            if (!Files.exists(path)) {
+                throw new DataProcessingException("Data source file not found: " + dataSourceConfig.getPath());
+            }
+            try {
+                publish(loader.load(path, 1));
+                writeBinarySnapshot(current.get());
+            } catch (IOException e) {
+                log.error("Error loading currency data: {}", e.getMessage(), e);
+                throw new DataProcessingException("Failed to load currency data", e);
+            }
+        }
+        applyDeltaIfChanged();
+    }
+
+    /**
+     * The snapshot currently being served.
+     */
+    public RatesSnapshot current() {
+        RatesSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            throw new DataNotFoundException("No currency data available");
+        }
+        return snapshot;
+    }
+
+    /**
+     * The snapshot currently being served, or null before the first successful load.
+     */
+    public RatesSnapshot peek() {
+        return current.get();
+    }
+
+    /**
+     * Message of the last failed reload, or null if the last attempt succeeded.
+     */
+    public String getLastFailure() {
+        return lastFailure;
+    }
+
+    @Scheduled(fixedDelayString = "${app.data.source.reload-interval-ms:30000}",
+            initialDelayString = "${app.data.source.reload-interval-ms:30000}")
+    public void pollForChanges() {
+        if (dataSourceConfig.isReloadEnabled()) {
+            reloadIfChanged();
+            applyDeltaIfChanged();
+        }
+    }
+
+    /**
+     * Reload the source when its modification time or size differs from the served snapshot.
+     * @return true if a new snapshot was published
+     */
+    public boolean reloadIfChanged() {
+        synchronized (reloadLock) {
+            Path path = Paths.get(dataSourceConfig.getPath());
+            SourceStamp stamp;
+            try {
+                stamp = SourceStamp.of(path);
+            } catch (IOException e) {
+                log.warn("Unable to stat data source {}: {}", path, e.getMessage());
+                return false;
+            }
+
+            RatesSnapshot served = current.get();
+            if (served != null && stamp.equals(served.getSourceStamp())) {
+                return false;
+            }
+            if (stamp.equals(lastFailedStamp)) {
+                // Same broken publication as last time, wait for the file to change again
+                return false;
+            }
+
+            long version = served != null ? served.getVersion() + 1 : 1;
+            try {
+                publish(loader.load(path, version));
+                writeBinarySnapshot(current.get());
+                // The new source may predate the delta: apply it again on top
+                appliedDeltaStamp = null;
+                return true;
+            } catch (IOException | RuntimeException e) {
+                lastFailedStamp = stamp;
+                lastFailure = e.getMessage();
+                log.error("Reload of {} failed, keeping snapshot v{}: {}", path,
+                        served != null ? served.getVersion() : 0, e.getMessage(), e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Append the rows of the delta file to the served snapshot when the file changed since it was last applied.
+     * @return true if a new snapshot was published
+     */
+    public boolean applyDeltaIfChanged() {
+        if (!dataSourceConfig.isDeltaEnabled()) {
+            return false;
+        }
+        synchronized (reloadLock) {
+            RatesSnapshot served = current.get();
+            Path delta = Paths.get(dataSourceConfig.resolveDeltaPath());
+            if (served == null || !Files.exists(delta)) {
+                return false;
+            }
+            SourceStamp stamp;
+            try {
+                stamp = SourceStamp.of(delta);
+            } catch (IOException e) {
+                log.warn("Unable to stat delta {}: {}", delta, e.getMessage());
+                return false;
+            }
+            if (stamp.equals(appliedDeltaStamp)) {
+                return false;
+            }
+
+            long startedNanos = System.nanoTime();
+            try {
+                SnapshotDelta.Result result = SnapshotDelta.apply(served, loader.readCurrencies(delta),
+                        served.getVersion() + 1, startedNanos);
+                appliedDeltaStamp = stamp;
+                log.info("Delta {}: {} new rates, {} new currencies, {} rates already published",
+                        delta, result.appendedRows(), result.addedCurrencies(), result.skippedRows());
+                if (result.snapshot() == null) {
+                    return false;
+                }
+                publish(result.snapshot());
+                return true;
+            } catch (IOException | RuntimeException e) {
+                // Same broken delta is not retried until it changes
+                appliedDeltaStamp = stamp;
+                lastFailure = e.getMessage();
+                log.error("Applying delta {} failed, keeping snapshot v{}: {}", delta, served.getVersion(), e.getMessage(), e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Map the binary snapshot if it was built from the current source (or the source is gone) and
+     * carries the columns this instance serves.
+     * @return the mapped snapshot, or null to fall back to the JSON source
+     */
+    private RatesSnapshot mapBinarySnapshot(Path source) {
+        if (!dataSourceConfig.isBinarySnapshotEnabled()) {
+            return null;
+        }
+        Path binary = Paths.get(dataSourceConfig.resolveBinarySnapshotPath());
+        if (!Files.exists(binary)) {
+            return null;
+        }
+        try {
+            if (Files.exists(source) && !SourceStamp.of(source).equals(BinarySnapshotFile.readSourceStamp(binary))) {
+                log.info("Binary snapshot {} is stale, reading {}", binary, source);
+                return null;
+            }
+            if (dataSourceConfig.isRetainAuditFields() && !BinarySnapshotFile.hasAuditFields(binary)) {
+                log.info("Binary snapshot {} has no audit fields, reading {}", binary, source);
+                return null;
+            }
+            log.info("Mapping currency data from binary snapshot: {}", binary);
+            return BinarySnapshotFile.map(binary, 1, dataSourceConfig.isRetainAuditFields());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to map binary snapshot {}, reading {}: {}", binary, source, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Persist a snapshot loaded from JSON for the next startup. Failing to do so never affects serving.
+     */
+    private void writeBinarySnapshot(RatesSnapshot snapshot) {
+        if (!dataSourceConfig.isBinarySnapshotEnabled()) {
+            return;
+        }
+        Path binary = Paths.get(dataSourceConfig.resolveBinarySnapshotPath());
+        try {
+            BinarySnapshotFile.write(snapshot, binary);
+            log.debug("Wrote binary snapshot v{} to {}", snapshot.getVersion(), binary);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to write binary snapshot {}: {}", binary, e.getMessage());
+        }
+    }
+
+    private void publish(RatesSnapshot next) {
+        RatesSnapshot previous = current.getAndSet(next);
+        lastFailedStamp = null;
+        lastFailure = null;
+        log.info("Published snapshot v{} with {} currencies and {} rates in {} ms",
+                next.getVersion(), next.currencies().size(), next.getRecordCount(), next.getLoadDuration().toMillis());
+        eventPublisher.publishEvent(new SnapshotPublishedEvent(next, previous));
+    }
+}
@@ -0,0 +1,283 @@
+package com.mauriexchange.code.store;
+
+import java.util.Arrays;
+
+/**
+ * Rolling-window statistics of a {@link RateSeries} range, computed in one pass over the primitive
+ * columns. The window counts published days, not calendar days: a day published several times is read
+ * from its first row only, as in {@link RateSeries#indexOf(int)}, and days without a usable value are
+ * skipped. Up to {@code window} days before the range warm the window up, so the first row of the range
+ * already has a moving average when enough history exists.
+ *
+ * <p>The moving sum and sum of squares are updated in O(1) per row from a ring buffer. They are kept
+ * relative to the first value read, which avoids the cancellation of a plain sum of squares on series
+ * whose variations are small next to their level.</p>
+ */
+public final class RollingStats {
+
+    private final int window;
+    private final int[] days;
+    private final double[] values;
+    private final double[] sma;
+    private final double[] ema;
+    private final double[] stddev;
+    private final double[] returns;
+    private final double[] drawdown;
+    private final int size;
+
+    private double min = Double.NaN;
+    private int minDay;
+    private double max = Double.NaN;
+    private int maxDay;
+    private double mean = Double.NaN;
+    private double volatility = Double.NaN;
+    private double maxDrawdown = Double.NaN;
+    private int peakDay;
+    private int troughDay;
+
+    /**
+     * @param fromIndex First row of the range
+     * @param toIndex End (exclusive) of the range
+     * @param window Days per window, at least 2
+     */
+    public static RollingStats compute(RateSeries series, int fromIndex, int toIndex, int window) {
+        return new RollingStats(series, fromIndex, Math.max(fromIndex, toIndex), window);
+    }
+
+    private RollingStats(RateSeries series, int fromIndex, int toIndex, int window) {
+        if (window < 2) {
+            throw new IllegalArgumentException("Window must hold at least 2 rows");
+        }
+        this.window = window;
+        int capacity = toIndex - fromIndex;
+        int[] outDays = new int[capacity];
+        double[] outValues = new double[capacity];
+        double[] outSma = new double[capacity];
+        double[] outEma = new double[capacity];
+        double[] outStddev = new double[capacity];
+        double[] outReturns = new double[capacity];
+        double[] outDrawdown = new double[capacity];
+
+        // Warm up on the previous window days, which also gives the first row of the range its return
+        int warmStart = fromIndex;
+        for (int valid = 0; warmStart > 0 && valid < window; ) {
+            warmStart--;
+            if (!Double.isNaN(series.valueAt(warmStart)) && !repeatsDay(series, warmStart)) {
+                valid++;
+            }
+        }
+
+        double[] ring = new double[window];
+        int filled = 0;
+        int head = 0;
+        double shift = Double.NaN;
+        double sum = 0;
+        double sumSquares = 0;
+        double alpha = 2.0 / (window + 1);
+        double average = Double.NaN;
+        double previous = Double.NaN;
+
+        double peak = Double.NaN;
+        int currentPeakDay = 0;
+        double valueSum = 0;
+        // Welford's running variance of the returns in the range
+        int returnCount = 0;
+        double returnMean = 0;
+        double returnM2 = 0;
+
+        int n = 0;
+        for (int i = warmStart; i < toIndex; i++) {
+            double x = series.valueAt(i);
+            if (Double.isNaN(x) || repeatsDay(series, i)) {
+                continue;
+            }
+            if (Double.isNaN(shift)) {
+                shift = x;
+                average = x;
+            }
+            double shifted = x - shift;
+            if (filled == window) {
+                double leaving = ring[head];
+                sum -= leaving;
+                sumSquares -= leaving * leaving;
+            } else {
+                filled++;
+            }
+            ring[head] = shifted;
+            head = head + 1 == window ? 0 : head + 1;
+            sum += shifted;
+            sumSquares += shifted * shifted;
+            average += alpha * (x - average);
+            double change = Double.isNaN(previous) || previous == 0 ? Double.NaN : x / previous - 1;
+            previous = x;
+
+            if (i < fromIndex) {
+                continue;
+            }
+            int day = series.dayAt(i);
+            outDays[n] = day;
+            outValues[n] = x;
+            outEma[n] = average;
+            outReturns[n] = change;
+            if (filled == window) {
+                outSma[n] = sum / window + shift;
+                double variance = (sumSquares - sum * sum / window) / (window - 1);
+                outStddev[n] = Math.sqrt(Math.max(0, variance));
+            } else {
+                outSma[n] = Double.NaN;
+                outStddev[n] = Double.NaN;
+            }
+
+            if (Double.isNaN(peak) || x > peak) {
+                peak = x;
+                currentPeakDay = day;
+            }
+            double fromPeak = peak > 0 ? x / peak - 1 : Double.NaN;
+            outDrawdown[n] = fromPeak;
+            if (Double.isNaN(maxDrawdown) || fromPeak < maxDrawdown) {
+                maxDrawdown = fromPeak;
+                peakDay = currentPeakDay;
+                troughDay = day;
+            }
+            if (Double.isNaN(min) || x < min) {
+                min = x;
+                minDay = day;
+            }
+            if (Double.isNaN(max) || x > max) {
+                max = x;
+                maxDay = day;
+            }
+            valueSum += x;
+            // The first return of the range may be against a warm-up row: it is still a return in the range
+            if (!Double.isNaN(change)) {
+                returnCount++;
+                double delta = change - returnMean;
+                returnMean += delta / returnCount;
+                returnM2 += delta * (change - returnMean);
+            }
+            n++;
+        }
+
+        size = n;
+        days = Arrays.copyOf(outDays, n);
+        values = Arrays.copyOf(outValues, n);
+        sma = Arrays.copyOf(outSma, n);
+        ema = Arrays.copyOf(outEma, n);
+        stddev = Arrays.copyOf(outStddev, n);
+        returns = Arrays.copyOf(outReturns, n);
+        drawdown = Arrays.copyOf(outDrawdown, n);
+        if (n > 0) {
+            mean = valueSum / n;
+        }
+        if (returnCount > 1) {
+            volatility = Math.sqrt(returnM2 / (returnCount - 1));
+        }
+    }
+
+    public int window() {
+        return window;
+    }
+
+    /**
+     * Number of days of the range with a value.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int dayAt(int index) {
+        return days[index];
+    }
+
+    public double valueAt(int index) {
+        return values[index];
+    }
+
+    /**
+     * Simple moving average over the window ending at the row, NaN until the window is full.
+     */
+    public double smaAt(int index) {
+        return sma[index];
+    }
+
+    /**
+     * Exponential moving average with smoothing 2 / (window + 1), seeded with the first row read.
+     */
+    public double emaAt(int index) {
+        return ema[index];
+    }
+
+    /**
+     * Sample standard deviation over the window ending at the row, NaN until the window is full.
+     */
+    public double stddevAt(int index) {
+        return stddev[index];
+    }
+
+    /**
+     * Simple return since the previous day with a value, NaN for the very first row of the series.
+     */
+    public double returnAt(int index) {
+        return returns[index];
+    }
+
+    /**
+     * Relative distance from the highest value since the start of the range (0 at a new high, negative below).
+     */
+    public double drawdownAt(int index) {
+        return drawdown[index];
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public int minDay() {
+        return minDay;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    public int maxDay() {
+        return maxDay;
+    }
+
+    public double mean() {
+        return mean;
+    }
+
+    /**
+     * Sample standard deviation of the returns in the range, NaN with fewer than two returns.
+     */
+    public double volatility() {
+        return volatility;
+    }
+
+    /**
+     * Deepest drawdown in the range (0 if the series never fell below a previous high).
+     */
+    public double maxDrawdown() {
+        return maxDrawdown;
+    }
+
+    /**
+     * Day of the high the deepest drawdown is measured from.
+     */
+    public int peakDay() {
+        return peakDay;
+    }
+
+    /**
+     * Day the deepest drawdown was reached.
+     */
+    public int troughDay() {
+        return troughDay;
+    }
+
+    // A later row of a day published several times
+    private static boolean repeatsDay(RateSeries series, int index) {
+        return index > 0 && series.dayAt(index - 1) == series.dayAt(index);
+    }
+}
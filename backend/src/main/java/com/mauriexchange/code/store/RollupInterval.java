@@ -0,0 +1,53 @@
+package com.mauriexchange.code.store;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Calendar periods that history can be downsampled to. Weeks are ISO weeks starting on Monday.
+ */
+public enum RollupInterval {
+    WEEK,
+    MONTH,
+    YEAR;
+
+    /**
+     * First day of the period containing the given date.
+     */
+    LocalDate periodStart(LocalDate date) {
+        return switch (this) {
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    /**
+     * First day of the period following the one starting on the given date.
+     */
+    LocalDate nextPeriodStart(LocalDate periodStart) {
+        return switch (this) {
+            case WEEK -> periodStart.plusWeeks(1);
+            case MONTH -> periodStart.plusMonths(1);
+            case YEAR -> periodStart.plusYears(1);
+        };
+    }
+
+    /**
+     * Parse a request parameter such as "week", ignoring case.
+     * @return the interval, or null if the text names none
+     */
+    public static RollupInterval fromParameter(String text) {
+        if (text == null) {
+            return null;
+        }
+        for (RollupInterval interval : values()) {
+            if (interval.name().equals(text.trim().toUpperCase(Locale.ROOT))) {
+                return interval;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,114 @@
+package com.mauriexchange.code.store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Applies newly published rates to a snapshot without reloading it.
+ *
+ * <p>A delta is a document in the source shape holding only new rows. Each currency is matched by
+ * code (or id when it has none); its rows dated after the last published day are appended to the
+ * currency's columns through a {@link RateSegment}, and rows on or before that day are treated as
+ * already ingested. Currencies unknown to the snapshot are added. The work is proportional to the
+ * delta and to the number of currencies, never to the length of the histories.</p>
+ */
+final class SnapshotDelta {
+
+    private SnapshotDelta() {
+    }
+
+    /**
+     * @param snapshot Snapshot the delta was published after, or null if nothing changed
+     * @param appendedRows Rows appended to existing or added currencies
+     * @param addedCurrencies Currencies the base snapshot did not have
+     * @param skippedRows Delta rows not newer than the currency's last published day
+     */
+    record Result(RatesSnapshot snapshot, int appendedRows, int addedCurrencies, int skippedRows) {}
+
+    static Result apply(RatesSnapshot base, List<CurrencyEntry> delta, long version, long startedNanos) {
+        List<CurrencyEntry> currencies = new ArrayList<>(base.currencies());
+        Map<String, Integer> positions = new HashMap<>(currencies.size() * 2);
+        for (int i = currencies.size() - 1; i >= 0; i--) {
+            // Iterating backwards so that the first occurrence wins, as in the snapshot's own index
+            positions.put(key(currencies.get(i)), i);
+        }
+        Map<CurrencyEntry, CurrencyEntry> extendedFrom = new IdentityHashMap<>();
+        int appended = 0;
+        int added = 0;
+        int skipped = 0;
+        boolean changed = false;
+
+        for (CurrencyEntry update : delta) {
+            String key = key(update);
+            if (key == null) {
+                skipped += update.getSeries().size();
+                continue;
+            }
+            Integer position = positions.get(key);
+            if (position == null) {
+                positions.put(key, currencies.size());
+                currencies.add(update);
+                appended += update.getSeries().size();
+                added++;
+                changed = true;
+                continue;
+            }
+
+            CurrencyEntry current = currencies.get(position);
+            RateSeries series = current.getSeries();
+            RateSeries extra = update.getSeries();
+            int from = series.isEmpty() ? 0 : extra.upperBound(series.dayAt(series.size() - 1));
+            skipped += from;
+            boolean newRows = from < extra.size();
+            if (!newRows && !metadataChanged(current, update)) {
+                continue;
+            }
+
+            CurrencyEntry.CurrencyEntryBuilder next = current.toBuilder();
+            if (update.getNameFr() != null) next.nameFr(update.getNameFr());
+            if (update.getNameAr() != null) next.nameAr(update.getNameAr());
+            if (update.getUnity() != null) next.unity(update.getUnity());
+            if (update.getUpdatedAt() != null) next.updatedAt(update.getUpdatedAt());
+            if (update.getPublishedAt() != null) next.publishedAt(update.getPublishedAt());
+            if (newRows) {
+                RateSegment segment = RateSegment.append(current.getSegment(), series, current.getDetails(),
+                        extra, update.getDetails(), from);
+                int size = series.size() + extra.size() - from;
+                next.series(segment.series(size)).details(segment.details(size)).segment(segment);
+                appended += extra.size() - from;
+            }
+            CurrencyEntry replaced = next.build();
+            extendedFrom.put(replaced, extendedFrom.getOrDefault(current, current));
+            currencies.set(position, replaced);
+            changed = true;
+        }
+
+        RatesSnapshot snapshot = changed
+                ? RatesSnapshot.appended(base, currencies, extendedFrom, version, startedNanos)
+                : null;
+        return new Result(snapshot, appended, added, skipped);
+    }
+
+    private static boolean metadataChanged(CurrencyEntry current, CurrencyEntry update) {
+        return differs(current.getNameFr(), update.getNameFr())
+                || differs(current.getNameAr(), update.getNameAr())
+                || differs(current.getUnity(), update.getUnity())
+                || differs(current.getUpdatedAt(), update.getUpdatedAt())
+                || differs(current.getPublishedAt(), update.getPublishedAt());
+    }
+
+    private static boolean differs(Object current, Object update) {
+        return update != null && !Objects.equals(current, update);
+    }
+
+    private static String key(CurrencyEntry entry) {
+        if (entry.getCode() != null) {
+            return RatesSnapshot.normalizeCode(entry.getCode());
+        }
+        return entry.getId() != null ? "#" + entry.getId() : null;
+    }
+}
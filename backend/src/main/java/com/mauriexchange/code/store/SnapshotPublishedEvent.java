@@ -0,0 +1,8 @@
+package com.mauriexchange.code.store;
+
+/**
+ * Published after a new {@link RatesSnapshot} became visible to readers.
+ * @param snapshot the snapshot now being served
+ * @param previous the snapshot it replaced, or null on the initial load
+ */
+public record SnapshotPublishedEvent(RatesSnapshot snapshot, RatesSnapshot previous) {}
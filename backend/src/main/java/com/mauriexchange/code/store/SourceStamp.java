@@ -0,0 +1,17 @@
+package com.mauriexchange.code.store;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Modification time and size of a data source file, used to detect a new publication.
+ */
+public record SourceStamp(long lastModifiedMillis, long size) {
+
+    public static SourceStamp of(Path path) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        return new SourceStamp(attrs.lastModifiedTime().toMillis(), attrs.size());
+    }
+}
@@ -0,0 +1,18 @@
+package com.mauriexchange.code.store;
+
+import java.util.List;
+
+/**
+ * Rows of a currency whose day is missing or not a date, in source order. They cannot be placed in its
+ * {@link RateSeries}, so no date lookup sees them, but full currency views list them as published.
+ * @param dayTexts Day of each row as published, null where it was missing
+ * @param details Source fields of each row
+ */
+public record UndatedRates(List<String> dayTexts, RateDetails details) {
+
+    public static final UndatedRates EMPTY = new UndatedRates(List.of(), RateDetails.EMPTY);
+
+    public int size() {
+        return dayTexts.size();
+    }
+}
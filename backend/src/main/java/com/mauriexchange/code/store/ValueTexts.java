@@ -0,0 +1,49 @@
+package com.mauriexchange.code.store;
+
+import java.util.Arrays;
+
+/**
+ * Values whose source text is not the canonical form of a plain decimal ("+39.8", ".5", "-0", "1e3",
+ * "39,8"...), kept verbatim by row. Sparse and sorted by row, since almost every published value is a
+ * plain decimal that {@link RateDetails} rebuilds exactly from its unscaled digits and scale.
+ */
+final class ValueTexts {
+
+    static final ValueTexts NONE = new ValueTexts(new int[0], new String[0], 0);
+
+    private final int[] rows;
+    private final String[] texts;
+    private final int count;
+
+    /**
+     * @param rows Rows in ascending order; only the first {@code count} are read
+     */
+    ValueTexts(int[] rows, String[] texts, int count) {
+        this.rows = rows;
+        this.texts = texts;
+        this.count = count;
+    }
+
+    /**
+     * Source text of the row's value, or null if it has none kept here.
+     */
+    String at(int row) {
+        if (count == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(rows, 0, count, row);
+        return index >= 0 ? texts[index] : null;
+    }
+
+    int size() {
+        return count;
+    }
+
+    int rowAt(int index) {
+        return rows[index];
+    }
+
+    String textAt(int index) {
+        return texts[index];
+    }
+}
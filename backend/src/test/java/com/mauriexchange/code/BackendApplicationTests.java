@@ -1,11 +1,16 @@
 package com.mauriexchange.code;
 
+import com.mauriexchange.code.exception.BadRequestException;
 import com.mauriexchange.code.service.CurrencyService;
+import com.mauriexchange.code.store.RollupInterval;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -37,6 +42,13 @@ class BackendApplicationTests {
         assertTrue(currency.isPresent());
         assertEquals("NOK", currency.get().getCode());
         assertEquals("Couronne norvégienne", currency.get().getNameFr());
+
+        // Lookups ignore case and resolve to the same currency by id
+        var lowerCase = currencyService.getCurrencyByCode("nok");
+        assertTrue(lowerCase.isPresent());
+        assertEquals(currency.get().getId(), lowerCase.get().getId());
+        assertTrue(currencyService.getCurrencyById(currency.get().getId()).isPresent());
+        assertTrue(currencyService.getCurrencyByCode("ZZZ").isEmpty());
     }
     
     @Test
@@ -61,6 +73,29 @@ class BackendApplicationTests {
         assertFalse(secondPage.getMetadata().isFirst());
     }
     
+    @Test
+    void testPagesPastTheEndAreEmptyAndCursorsWalkAllCurrencies() {
+        int total = currencyService.getAllCurrencies().size();
+        var pastEnd = currencyService.getAllCurrenciesPaginated(1000, 10);
+        assertTrue(pastEnd.getData().isEmpty());
+        assertFalse(pastEnd.getMetadata().isHasNext());
+        assertEquals(total, pastEnd.getMetadata().getTotalElements());
+
+        List<String> codes = new ArrayList<>();
+        String cursor = "";
+        do {
+            var page = currencyService.getAllCurrenciesAfter(4, cursor);
+            assertTrue(page.getData().size() <= 4);
+            page.getData().forEach(c -> codes.add(c.getCode()));
+            cursor = page.getMetadata().getNextCursor();
+        } while (cursor != null);
+        assertEquals(total, codes.size());
+        assertEquals(codes.stream().sorted().toList(), codes);
+
+        assertThrows(BadRequestException.class,
+                () -> currencyService.getAllCurrenciesAfter(4, "not-a-cursor"));
+    }
+    
     @Test
     void testSearchCurrenciesByNamePaginated() {
         // Test search pagination functionality
@@ -74,4 +109,95 @@ class BackendApplicationTests {
         assertEquals(0, paginatedResponse.getMetadata().getPage());
         assertEquals(5, paginatedResponse.getMetadata().getSize());
     }
+
+    @Test
+    void testHistoryIsSortedAndMatchesOfficialRates() {
+        // History points come back in ascending date order and agree with single-date lookups
+        var history = currencyService.getHistoryByCodeAndRange("NOK", "1900-01-01", "2999-12-31");
+        assertFalse(history.isEmpty());
+        for (int i = 1; i < history.size(); i++) {
+            assertTrue(history.get(i - 1).getDate().compareTo(history.get(i).getDate()) <= 0);
+        }
+
+        var point = history.get(history.size() / 2);
+        var official = currencyService.getOfficialRateByCodeAndDate("nok", point.getDate());
+        assertTrue(official.isPresent());
+        assertEquals(point.getOfficialRate(), official.get().getOfficialRate());
+
+        var window = currencyService.getHistoryByCodeAndRange("NOK", point.getDate(), point.getDate());
+        assertEquals(1, window.size());
+    }
+
+    @Test
+    void testAsOfLookupFallsBackToPreviousPublishedRate() {
+        // 2025-10-18 is a Saturday: no rate that day, Friday's rate applies as of it
+        assertTrue(currencyService.getOfficialRateByCodeAndDate("USD", "2025-10-18").isEmpty());
+        var friday = currencyService.getOfficialRateByCodeAndDate("USD", "2025-10-17").orElseThrow();
+        assertEquals("2025-10-17", friday.getEffectiveDate());
+
+        var asOf = currencyService.getOfficialRateByCodeAndDate("usd", "2025-10-19", true).orElseThrow();
+        assertEquals("2025-10-19", asOf.getDate());
+        assertEquals("2025-10-17", asOf.getEffectiveDate());
+        assertEquals(friday.getOfficialRate(), asOf.getOfficialRate());
+
+        // Nothing published before the first day of the series
+        assertTrue(currencyService.getOfficialRateByCodeAndDate("USD", "1990-01-01", true).isEmpty());
+
+        var compare = currencyService.compareRates("USD", "2025-10-12", "2025-10-18", true);
+        assertEquals("2025-10-10", compare.getFromEffectiveDate());
+        assertEquals("2025-10-17", compare.getToEffectiveDate());
+        assertEquals(friday.getOfficialRate(), compare.getRateTo());
+    }
+
+    @Test
+    void testMonthlyRollupMatchesDailyHistory() {
+        var buckets = currencyService.getHistoryRollupByCodeAndRange("USD", "2025-02-10", "2025-03-05", RollupInterval.MONTH);
+        assertEquals(2, buckets.size());
+
+        // Edge buckets cover whole months, so February is aggregated from all its days
+        var february = buckets.get(0);
+        assertEquals("2025-02-01", february.getStart());
+        assertEquals("2025-02-28", february.getEnd());
+        var days = currencyService.getHistoryByCodeAndRange("USD", "2025-02-01", "2025-02-28");
+        assertEquals(days.size(), february.getCount());
+        assertEquals(days.get(0).getOfficialRate(), february.getOpen());
+        assertEquals(days.get(days.size() - 1).getOfficialRate(), february.getClose());
+        var stats = days.stream().mapToDouble(p -> p.getOfficialRate()).summaryStatistics();
+        assertEquals(stats.getMax(), february.getHigh());
+        assertEquals(stats.getMin(), february.getLow());
+        assertEquals(stats.getAverage(), february.getAvg(), 1e-9);
+
+        var weeks = currencyService.getHistoryRollupByCodeAndRange("USD", "2025-01-01", "2025-12-31", RollupInterval.WEEK);
+        assertTrue(weeks.stream().allMatch(week -> java.time.LocalDate.parse(week.getStart()).getDayOfWeek() == java.time.DayOfWeek.MONDAY));
+        assertEquals("2024-12-30", weeks.get(0).getStart());
+    }
+
+    @Test
+    void testLatestRatesAreReusedForSameMargin() {
+        var latest = currencyService.getLatestRates(0.01);
+        assertSame(latest, currencyService.getLatestRates(0.01));
+        assertNotSame(latest, currencyService.getLatestRates(0.02));
+
+        // The NOK row agrees with the last point of its history
+        var nok = latest.getData().stream().filter(i -> "NOK".equals(i.getCode())).findFirst().orElseThrow();
+        var history = currencyService.getHistoryByCodeAndRange("NOK", "1900-01-01", "2999-12-31");
+        assertEquals(history.get(history.size() - 1).getOfficialRate(), nok.getOfficialRate());
+        assertEquals(nok.getOfficialRate() * 0.99, nok.getBuyRate(), 1e-9);
+    }
+
+    @Test
+    void testConvertUsesLatestOfficialRates() {
+        var latestNok = currencyService.getLatestRates(0.01).getData().stream()
+                .filter(i -> "NOK".equals(i.getCode())).findFirst().orElseThrow();
+
+        var toMru = currencyService.convert("nok", "MRU", 10);
+        assertEquals("NOK", toMru.getFrom());
+        assertEquals(latestNok.getOfficialRate(), toMru.getRate());
+        assertEquals(10 * latestNok.getOfficialRate(), toMru.getConvertedAmount(), 1e-9);
+
+        var roundTrip = currencyService.convert("MRU", "NOK", 1);
+        assertEquals(1 / latestNok.getOfficialRate(), roundTrip.getRate(), 1e-12);
+        assertEquals(toMru.getDate(), roundTrip.getDate());
+        assertNull(currencyService.convert("MRU", "MRU", 1).getDate());
+    }
 }
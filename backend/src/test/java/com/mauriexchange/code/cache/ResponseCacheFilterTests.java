@@ -0,0 +1,92 @@
+package com.mauriexchange.code.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "app.data.source.path=../database/bcm-source_db.json"
+})
+class ResponseCacheFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void latestRatesAreServedWithEtagAndRevalidated() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/v1/exchange-rates/latest"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // A cache hit returns the very same bytes
+        MvcResult second = mockMvc.perform(get("/api/v1/exchange-rates/latest"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn();
+        assertArrayEquals(first.getResponse().getContentAsByteArray(), second.getResponse().getContentAsByteArray());
+
+        mockMvc.perform(get("/api/v1/exchange-rates/latest").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void errorsAndOpenRangesAreNotCached() throws Exception {
+        mockMvc.perform(get("/api/v1/currencies/code/ZZZ"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        mockMvc.perform(get("/api/v1/exchange-rates/history/NOK").param("start", "2025-01-01").param("end", "2999-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void compressedVariantsAreNegotiatedWithAcceptEncoding() throws Exception {
+        byte[] identity = mockMvc.perform(get("/api/v1/currencies"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        MvcResult gzip = mockMvc.perform(get("/api/v1/currencies").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        byte[] compressed = gzip.getResponse().getContentAsByteArray();
+        assertTrue(compressed.length < identity.length);
+        assertEquals(compressed.length, gzip.getResponse().getContentLength());
+        assertArrayEquals(identity, new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes());
+
+        byte[] deflated = mockMvc.perform(get("/api/v1/currencies").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0.5, deflate"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "deflate"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals(identity, new InflaterInputStream(new ByteArrayInputStream(deflated)).readAllBytes());
+
+        mockMvc.perform(get("/api/v1/currencies").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+
+        // Each representation has its own tag, and any of them revalidates
+        String etag = gzip.getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(etag.endsWith("-gzip\""));
+        mockMvc.perform(get("/api/v1/currencies").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,79 @@
+package com.mauriexchange.code.cache;
+
+import com.mauriexchange.code.config.ResponseCacheConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTests {
+
+    @Test
+    void fullCacheEvictsTheLeastRecentlyUsedEntry() throws Exception {
+        ResponseCacheConfig config = new ResponseCacheConfig();
+        config.setMaxEntries(2);
+        ResponseCache cache = new ResponseCache(config);
+
+        cache.put("a", 1, "application/json", new byte[]{1});
+        Thread.sleep(1);
+        cache.put("b", 1, "application/json", new byte[]{2});
+        Thread.sleep(1);
+        assertNotNull(cache.get("a", 1));
+        cache.put("c", 1, "application/json", new byte[]{3});
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a", 1));
+        assertNull(cache.get("b", 1));
+        assertNotNull(cache.get("c", 1));
+    }
+
+    @Test
+    void statisticsOnlyEvictEachOther() {
+        ResponseCacheConfig config = new ResponseCacheConfig();
+        config.setMaxEntries(2);
+        config.setStatsMaxEntries(2);
+        ResponseCache cache = new ResponseCache(config);
+
+        cache.put("/api/v1/exchange-rates/latest", 1, "application/json", new byte[]{1});
+        cache.put("/api/v1/currencies", 1, "application/json", new byte[]{2});
+        for (int window = 2; window < 50; window++) {
+            cache.put(ResponseCache.Region.STATS, "/api/v1/exchange-rates/stats/USD?window=" + window, 1,
+                    "application/json", new byte[]{3});
+        }
+
+        assertEquals(2, cache.size(ResponseCache.Region.STATS));
+        assertNotNull(cache.get("/api/v1/exchange-rates/latest", 1));
+        assertNotNull(cache.get("/api/v1/currencies", 1));
+        assertNotNull(cache.get(ResponseCache.Region.STATS, "/api/v1/exchange-rates/stats/USD?window=49", 1));
+        assertNull(cache.get("/api/v1/exchange-rates/stats/USD?window=49", 1));
+    }
+
+    @Test
+    void concurrentMissesForTheSameKeyShareOneEncoding() throws Exception {
+        ResponseCache cache = new ResponseCache(new ResponseCacheConfig());
+        byte[] body = "{\"data\":\"".concat("x".repeat(4096)).concat("\"}").getBytes();
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<CachedResponse>> puts = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                puts.add(pool.submit(() -> cache.put("latest", 1, "application/json", body.clone())));
+            }
+            CachedResponse first = puts.get(0).get();
+            assertFalse(first.encoded().isEmpty());
+            for (Future<CachedResponse> put : puts) {
+                assertSame(first, put.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // A newer snapshot replaces the entry
+        assertNotSame(cache.get("latest", 1), cache.put("latest", 2, "application/json", body));
+    }
+}
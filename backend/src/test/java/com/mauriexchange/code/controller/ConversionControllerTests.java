@@ -0,0 +1,101 @@
+package com.mauriexchange.code.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "app.data.source.path=../database/bcm-source_db.json"
+})
+class ConversionControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void batchReportsEachItemInOrder() throws Exception {
+        String body = """
+                [
+                  {"from": "USD", "to": "MRU", "amount": 100},
+                  {"from": "XXX", "to": "MRU", "amount": 1},
+                  {"from": "USD", "to": "EUR", "amount": "abc"},
+                  {"from": "eur", "to": "usd", "amount": 5, "date": "2025-10-17"},
+                  {"from": "USD", "to": "MRU", "amount": -1}
+                ]
+                """;
+        JsonNode response = objectMapper.readTree(mockMvc.perform(post("/api/v1/convert/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertTrue(response.get("success").asBoolean());
+        JsonNode results = response.get("data");
+        assertEquals(5, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).get("index").asInt());
+        }
+
+        // Undated items match the single conversion endpoint
+        JsonNode single = objectMapper.readTree(mockMvc.perform(get("/api/v1/convert")
+                        .param("from", "USD").param("to", "MRU").param("amount", "100"))
+                .andReturn().getResponse().getContentAsString()).get("data");
+        assertEquals(single, results.get(0).get("data"));
+
+        assertFalse(results.get(1).get("success").asBoolean());
+        assertTrue(results.get(1).get("error").asText().contains("XXX"));
+        assertFalse(results.get(2).get("success").asBoolean());
+        assertTrue(results.get(3).get("success").asBoolean());
+        assertEquals("2025-10-17", results.get(3).get("data").get("date").asText());
+        assertEquals("EUR", results.get(3).get("data").get("from").asText());
+        assertFalse(results.get(4).get("success").asBoolean());
+    }
+
+    @Test
+    void ndjsonBatchIsAnsweredWithNdjson() throws Exception {
+        String body = "{\"from\":\"USD\",\"to\":\"MRU\",\"amount\":1}\n"
+                + "{\"from\":\"EUR\",\"to\":\"MRU\",\"amount\":2,\"date\":\"not-a-date\"}\n";
+        String content = mockMvc.perform(post("/api/v1/convert/batch")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = content.strip().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(objectMapper.readTree(lines[0]).get("success").asBoolean());
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertFalse(second.get("success").asBoolean());
+        assertEquals("Invalid date format. Expected YYYY-MM-DD", second.get("error").asText());
+    }
+
+    @Test
+    void malformedBodyEndsTheBatchWithAnError() throws Exception {
+        String content = mockMvc.perform(post("/api/v1/convert/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"from\":\"USD\",\"to\":\"MRU\",\"amount\":1}, {oops"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode results = objectMapper.readTree(content).get("data");
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).get("success").asBoolean());
+        assertFalse(results.get(1).get("success").asBoolean());
+    }
+}
@@ -0,0 +1,94 @@
+package com.mauriexchange.code.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "app.data.source.path=../database/bcm-source_db.json"
+})
+class CurrencyControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void fullProjectionMatchesTheDefaultResponse() throws Exception {
+        JsonNode full = data("/api/v1/currencies/code/USD", status().isOk());
+        JsonNode projected = data("/api/v1/currencies/code/USD?includeRates=all", status().isOk());
+        assertEquals(full, projected);
+    }
+
+    @Test
+    void fieldsSelectOnlyTheRequestedParts() throws Exception {
+        JsonNode currency = data("/api/v1/currencies/code/USD?fields=code,nameFr", status().isOk());
+        assertEquals(List.of("nameFr", "code"), fieldNames(currency));
+        assertEquals("USD", currency.get("code").asText());
+
+        JsonNode latest = data("/api/v1/currencies/code/USD?fields=code,exchangeRates.day,exchangeRates.value&includeRates=2",
+                status().isOk());
+        JsonNode rates = latest.get("exchangeRates");
+        assertEquals(2, rates.size());
+        assertEquals(List.of("day", "value"), fieldNames(rates.get(0)));
+        assertTrue(rates.get(0).get("day").asText().compareTo(rates.get(1).get("day").asText()) < 0);
+
+        JsonNode full = data("/api/v1/currencies/code/USD", status().isOk()).get("exchangeRates");
+        assertEquals(full.get(full.size() - 1).get("day"), rates.get(1).get("day"));
+    }
+
+    @Test
+    void includeRatesLimitsTheEmbeddedHistory() throws Exception {
+        JsonNode none = data("/api/v1/currencies/code/USD?includeRates=none", status().isOk());
+        assertFalse(none.has("exchangeRates"));
+        assertTrue(none.has("nameAr"));
+
+        JsonNode range = data("/api/v1/currencies/code/USD?includeRates=range&start=2024-05-01&end=2024-05-31",
+                status().isOk()).get("exchangeRates");
+        assertTrue(range.size() > 0);
+        for (JsonNode rate : range) {
+            String day = rate.get("day").asText();
+            assertTrue(day.compareTo("2024-05-01") >= 0 && day.compareTo("2024-05-31") <= 0, day);
+        }
+    }
+
+    @Test
+    void rejectsUnknownFieldsAndOptions() throws Exception {
+        mockMvc.perform(get("/api/v1/currencies/code/USD?fields=code,rate")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/currencies/code/USD?includeRates=some")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/currencies/code/USD?includeRates=range&start=2024-05-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/currencies/code/USD?includeRates=range&start=2024-05-31&end=2024-05-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode data(String url, ResultMatcher expectedStatus) throws Exception {
+        String body = mockMvc.perform(get(url))
+                .andExpect(expectedStatus)
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("data");
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
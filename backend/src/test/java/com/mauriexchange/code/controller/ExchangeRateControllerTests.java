@@ -0,0 +1,154 @@
+package com.mauriexchange.code.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.mauriexchange.code.config.BinaryFormatsConfig;
+import com.mauriexchange.code.store.EpochDays;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "app.data.source.path=../database/bcm-source_db.json"
+})
+class ExchangeRateControllerTests {
+
+    private static final String HISTORY = "/api/v1/exchange-rates/history/USD?start=2024-01-01&end=2025-12-31";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void binaryHistoryIsPackedColumns() throws Exception {
+        JsonNode points = objectMapper.readTree(mockMvc.perform(get(HISTORY))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray()).get("data");
+
+        byte[] cbor = mockMvc.perform(get(HISTORY).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode series = new CBORMapper().readTree(cbor).get("data");
+        assertEquals("USD", series.get("code").asText());
+        assertTrue(points.size() > 0);
+        assertEquals(points.size(), series.get("days").size());
+        assertEquals(points.size(), series.get("officialRates").size());
+        for (int i = 0; i < points.size(); i++) {
+            assertEquals(points.get(i).get("date").asText(), EpochDays.format(series.get("days").get(i).asInt()));
+            assertEquals(points.get(i).get("officialRate").asDouble(), series.get("officialRates").get(i).asDouble());
+        }
+    }
+
+    @Test
+    void latestAndConversionNegotiateSmileAndCbor() throws Exception {
+        JsonNode json = objectMapper.readTree(mockMvc.perform(get("/api/v1/exchange-rates/latest"))
+                .andReturn().getResponse().getContentAsByteArray()).get("data");
+
+        byte[] smile = mockMvc.perform(get("/api/v1/exchange-rates/latest")
+                        .header(HttpHeaders.ACCEPT, BinaryFormatsConfig.SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryFormatsConfig.SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(json, new SmileMapper().readTree(smile).get("data"));
+
+        // Binary and JSON representations are cached apart
+        mockMvc.perform(get("/api/v1/exchange-rates/latest"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+
+        byte[] cbor = mockMvc.perform(get("/api/v1/convert?from=USD&to=MRU&amount=100").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertTrue(new CBORMapper().readTree(cbor).get("data").get("convertedAmount").asDouble() > 0);
+
+        mockMvc.perform(get("/api/v1/exchange-rates/history/ZZZ?start=2024-01-01&end=2025-12-31").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR));
+    }
+
+    @Test
+    void alignedHistoryMergesSeriesOnOneAxis() throws Exception {
+        JsonNode aligned = json("/api/v1/exchange-rates/history?codes=USD,EUR,usd&start=2024-01-01&end=2025-12-31");
+        JsonNode dates = aligned.get("dates");
+        assertEquals(List.of("USD", "EUR"), fieldNames(aligned.get("rates")));
+
+        TreeSet<String> expectedDates = new TreeSet<>();
+        for (String code : List.of("USD", "EUR")) {
+            JsonNode points = json("/api/v1/exchange-rates/history/" + code + "?start=2024-01-01&end=2025-12-31");
+            JsonNode column = aligned.get("rates").get(code);
+            assertEquals(dates.size(), column.size());
+            List<String> present = new ArrayList<>();
+            for (int i = 0; i < dates.size(); i++) {
+                if (!column.get(i).isNull()) {
+                    present.add(dates.get(i).asText());
+                }
+            }
+            assertEquals(points.size(), present.size());
+            for (int i = 0; i < points.size(); i++) {
+                assertEquals(points.get(i).get("date").asText(), present.get(i));
+                expectedDates.add(present.get(i));
+            }
+        }
+        assertEquals(new ArrayList<>(expectedDates), textValues(dates));
+
+        mockMvc.perform(get("/api/v1/exchange-rates/history?codes=USD,ZZZ&start=2024-01-01&end=2025-12-31"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/exchange-rates/history?codes=,&start=2024-01-01&end=2025-12-31"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void statsCoverEveryPublishedDayOfTheRange() throws Exception {
+        JsonNode points = json("/api/v1/exchange-rates/history/USD?start=2025-01-01&end=2025-12-31");
+        JsonNode stats = json("/api/v1/exchange-rates/stats/USD?start=2025-01-01&end=2025-12-31&window=5");
+        assertEquals(5, stats.get("window").asInt());
+        assertEquals(points.size(), stats.get("dates").size());
+        assertEquals(points.size(), stats.get("summary").get("count").asInt());
+        assertEquals(points.get(0).get("date").asText(), stats.get("dates").get(0).asText());
+        assertEquals(points.size(), stats.get("sma").size());
+        assertTrue(stats.get("summary").get("maxDrawdown").asDouble() <= 0);
+
+        mockMvc.perform(get("/api/v1/exchange-rates/stats/USD?start=2025-01-01&end=2025-12-31&window=1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode json(String url) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray()).get("data");
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static List<String> textValues(JsonNode array) {
+        List<String> values = new ArrayList<>();
+        array.forEach(value -> values.add(value.asText()));
+        return values;
+    }
+}
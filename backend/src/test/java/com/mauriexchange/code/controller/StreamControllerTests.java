@@ -0,0 +1,78 @@
+package com.mauriexchange.code.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "app.data.source.path=../database/bcm-source_db.json"
+})
+class StreamControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void streamedHistoryMatchesHistoryEndpoint() throws Exception {
+        JsonNode expected = objectMapper.readTree(mockMvc.perform(get("/api/v1/exchange-rates/history/USD")
+                        .param("start", "2025-01-01").param("end", "2025-03-31"))
+                .andReturn().getResponse().getContentAsString()).get("data");
+        assertTrue(expected.size() > 0);
+
+        MvcResult json = stream(get("/api/v1/stream/history/usd")
+                .param("start", "2025-01-01").param("end", "2025-03-31"));
+        assertTrue(json.getResponse().getContentType().startsWith("application/json"));
+        assertEquals(expected, objectMapper.readTree(json.getResponse().getContentAsString()));
+
+        MvcResult ndjson = stream(get("/api/v1/stream/history/USD")
+                .param("start", "2025-01-01").param("end", "2025-03-31")
+                .header(HttpHeaders.ACCEPT, "application/x-ndjson"));
+        assertEquals("application/x-ndjson", ndjson.getResponse().getContentType());
+        String[] lines = ndjson.getResponse().getContentAsString().strip().split("\n");
+        assertEquals(expected.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(expected.get(i), objectMapper.readTree(lines[i]));
+        }
+    }
+
+    @Test
+    void streamedHistoryValidatesBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/api/v1/stream/history/XXX").param("start", "2025-01-01").param("end", "2025-03-31"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/stream/history/USD").param("start", "2025-03-31").param("end", "2025-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamedLatestMatchesLatestEndpoint() throws Exception {
+        JsonNode expected = objectMapper.readTree(mockMvc.perform(get("/api/v1/exchange-rates/latest"))
+                .andReturn().getResponse().getContentAsString()).get("data");
+
+        MvcResult result = stream(get("/api/v1/stream/latest"));
+        assertEquals(expected.get("date").asText(), result.getResponse().getHeader("X-Rates-Date"));
+        assertEquals(expected.get("data"), objectMapper.readTree(result.getResponse().getContentAsString()));
+    }
+
+    private MvcResult stream(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request).andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+    }
+}
@@ -0,0 +1,49 @@
+package com.mauriexchange.code.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@TestPropertySource(properties = {
+    "app.data.source.path=../database/bcm-source_db.json"
+})
+class MetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusScrapeCoversEndpointsServiceDatasetAndErrors() throws Exception {
+        mockMvc.perform(get("/api/v1/convert").param("from", "USD").param("to", "MRU").param("amount", "1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/convert").param("from", "XXX").param("to", "MRU").param("amount", "1"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/convert").param("from", "USD").param("to", "MRU").param("amount", "-1"))
+                .andExpect(status().isBadRequest());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(scrape.contains("uri=\"/api/v1/convert\""));
+        assertTrue(scrape.contains("currency_service_seconds_count{"));
+        assertTrue(scrape.contains("method=\"convert\""));
+        assertTrue(scrape.contains("dataset_records "));
+        assertTrue(scrape.contains("dataset_snapshot_age_seconds "));
+        assertTrue(scrape.contains("dataset_load_duration_seconds "));
+        assertTrue(scrape.contains("api_errors_total{exception=\"DataNotFoundException\",status=\"404\"}"));
+        assertTrue(scrape.contains("api_errors_total{exception=\"BadRequestException\",status=\"400\"}"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.mauriexchange.code.push;
+
+import com.mauriexchange.code.store.RatesSnapshotStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LatestRatesBroadcasterTests {
+
+    @TempDir
+    static Path tempDir;
+
+    @DynamicPropertySource
+    static void dataSource(DynamicPropertyRegistry registry) throws IOException {
+        Path source = tempDir.resolve("rates.json");
+        Files.copy(Paths.get("../database/bcm-source_db.json"), source);
+        registry.add("app.data.source.path", source::toString);
+        registry.add("app.data.source.reload-enabled", () -> "false");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RatesSnapshotStore snapshotStore;
+
+    @Test
+    void subscribersGetSnapshotThenDiffsAndReconnectsReplayMissedDiffs() throws Exception {
+        long version = snapshotStore.current().getVersion();
+
+        String first = subscribe(null);
+        String epoch = epochOf(first);
+        assertTrue(first.contains("id:" + epoch + "-" + version + "\nevent:snapshot\ndata:{\"date\""));
+
+        // Up to date: nothing to send until the next publication
+        assertEquals("", subscribe(epoch + "-" + version));
+
+        Path source = tempDir.resolve("rates.json");
+        String json = Files.readString(source, StandardCharsets.UTF_8);
+        Files.writeString(source, json.replace("Dollar américain", "Dollar des États-Unis"), StandardCharsets.UTF_8);
+        assertTrue(snapshotStore.reloadIfChanged());
+        long next = version + 1;
+
+        String replay = subscribe(epoch + "-" + version);
+        assertTrue(replay.startsWith("id:" + epoch + "-" + next + "\nevent:diff\n"));
+        assertTrue(replay.contains("\"previousVersion\":" + version));
+        assertTrue(replay.contains("Dollar des États-Unis"));
+        assertFalse(replay.contains("\"code\":\"EUR\""));
+
+        // Unknown or unusable ids fall back to a full snapshot
+        assertTrue(subscribe("not-a-version").contains("event:snapshot"));
+        assertTrue(subscribe(epoch + "-" + (next + 5)).contains("event:snapshot"));
+    }
+
+    @Test
+    void idsFromAnotherProcessGetAFullSnapshot() throws Exception {
+        String first = subscribe(null);
+        String epoch = epochOf(first);
+        long version = snapshotStore.current().getVersion();
+
+        // A restarted process numbers its snapshots from 1 again: the same version under another epoch, or
+        // a bare version from before epochs, may stand for other data
+        String restarted = subscribe("0" + epoch + "-" + version);
+        assertTrue(restarted.startsWith("id:" + epoch + "-" + version + "\nevent:snapshot\n"));
+        assertTrue(subscribe(Long.toString(version)).contains("event:snapshot"));
+        assertTrue(subscribe("-" + version).contains("event:snapshot"));
+    }
+
+    @Test
+    void connectedSubscribersGetDiffsFromTheSendingPool() throws Exception {
+        var connected = mockMvc.perform(get("/api/v1/exchange-rates/latest/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        long version = snapshotStore.current().getVersion();
+
+        Path source = tempDir.resolve("rates.json");
+        String json = Files.readString(source, StandardCharsets.UTF_8);
+        Files.writeString(source, json.replace("\"Euro\"", "\"Euro (zone euro)\""), StandardCharsets.UTF_8);
+        assertTrue(snapshotStore.reloadIfChanged());
+
+        // Written by a sender thread after the reload has returned
+        String expected = "-" + (version + 1) + "\nevent:diff\n";
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!connected.getContentAsString(StandardCharsets.UTF_8).contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(connected.getContentAsString(StandardCharsets.UTF_8).contains(expected));
+    }
+
+    private static String epochOf(String events) {
+        return events.substring("id:".length(), events.indexOf('-'));
+    }
+
+    private String subscribe(String lastEventId) throws Exception {
+        var request = get("/api/v1/exchange-rates/latest/stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+}
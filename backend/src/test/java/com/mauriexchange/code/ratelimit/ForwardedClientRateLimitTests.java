@@ -0,0 +1,51 @@
+package com.mauriexchange.code.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs on a real Tomcat, since X-Forwarded-For is resolved by its RemoteIpValve before any filter.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+    "app.data.source.path=../database/bcm-source_db.json",
+    "app.rate-limit.capacity=2",
+    "app.rate-limit.refill-per-second=0.01"
+})
+class ForwardedClientRateLimitTests {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void clientsBehindOneProxyHaveTheirOwnBuckets() throws Exception {
+        assertEquals(200, latestFor("203.0.113.1"));
+        assertEquals(200, latestFor("203.0.113.1"));
+        assertEquals(429, latestFor("203.0.113.1"));
+
+        // Same proxy (loopback, trusted by default), another client
+        assertEquals(200, latestFor("203.0.113.2"));
+
+        // A hop the client wrote itself, left of the one the proxy appended, is not trusted
+        assertEquals(429, latestFor("203.0.113.2, 203.0.113.1"));
+    }
+
+    private int latestFor(String forwardedFor) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/exchange-rates/latest"))
+                .header("X-Forwarded-For", forwardedFor)
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,81 @@
+package com.mauriexchange.code.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "app.data.source.path=../database/bcm-source_db.json",
+    "app.rate-limit.capacity=3",
+    "app.rate-limit.refill-per-second=0.01",
+    "app.rate-limit.api-keys=first,second,third",
+    "app.rate-limit.costs[/api/v1/exchange-rates/history]=2"
+})
+class RateLimitFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void throttledClientsGet429WithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/exchange-rates/latest").header("X-API-Key", "first"))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/v1/exchange-rates/latest").header("X-API-Key", "first"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"))
+                .andExpect(jsonPath("$.success").value(false));
+
+        // Another key has its own bucket, and history costs two tokens out of three
+        mockMvc.perform(get("/api/v1/exchange-rates/history/USD?start=2025-01-01&end=2025-02-01").header("X-API-Key", "second"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/exchange-rates/history/USD?start=2025-01-01&end=2025-02-01").header("X-API-Key", "second"))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/api/v1/exchange-rates/latest").header("X-API-Key", "second"))
+                .andExpect(status().isOk());
+
+        // Outside the API
+        mockMvc.perform(get("/actuator/health").header("X-API-Key", "first"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void unknownKeysAreLimitedByAddress() throws Exception {
+        // Rotating keys from one address draws on that address's bucket
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/exchange-rates/latest").header("X-API-Key", "rotated-" + i)
+                            .with(fromAddress("10.0.0.7")))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/v1/exchange-rates/latest").header("X-API-Key", "rotated-3")
+                        .with(fromAddress("10.0.0.7")))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/api/v1/exchange-rates/latest").with(fromAddress("10.0.0.7")))
+                .andExpect(status().isTooManyRequests());
+
+        // A configured key keeps its own bucket from the same address
+        mockMvc.perform(get("/api/v1/exchange-rates/latest").header("X-API-Key", "third")
+                        .with(fromAddress("10.0.0.7")))
+                .andExpect(status().isOk());
+    }
+
+    private static RequestPostProcessor fromAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.mauriexchange.code.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketsTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void burstThenRefillAtTheConfiguredRate() {
+        TokenBuckets buckets = new TokenBuckets(3, 1, 10, 4, now::get);
+        assertEquals(0, buckets.tryAcquire("a", 1));
+        assertEquals(0, buckets.tryAcquire("a", 2));
+        assertEquals(SECOND, buckets.tryAcquire("a", 1));
+        // Other clients have their own bucket
+        assertEquals(0, buckets.tryAcquire("b", 3));
+
+        now.addAndGet(SECOND);
+        assertEquals(0, buckets.tryAcquire("a", 1));
+        assertEquals(SECOND, buckets.tryAcquire("a", 1));
+        // A cost above the capacity needs a full bucket rather than never passing
+        assertEquals(3 * SECOND, buckets.tryAcquire("a", 10));
+        now.addAndGet(3 * SECOND);
+        assertEquals(0, buckets.tryAcquire("a", 10));
+    }
+
+    @Test
+    void memoryIsBoundedAndIdleClientsAreSwept() {
+        TokenBuckets buckets = new TokenBuckets(1, 1, 2, 1, now::get);
+        assertEquals(0, buckets.tryAcquire("a", 1));
+        assertEquals(0, buckets.tryAcquire("b", 1));
+        // Untracked clients share the overflow stripe
+        assertEquals(0, buckets.tryAcquire("c", 1));
+        assertTrue(buckets.tryAcquire("d", 1) > 0);
+        assertEquals(2, buckets.size());
+
+        now.addAndGet(SECOND);
+        buckets.sweep();
+        assertEquals(0, buckets.size());
+        assertEquals(0, buckets.tryAcquire("d", 1));
+        assertEquals(1, buckets.size());
+    }
+}
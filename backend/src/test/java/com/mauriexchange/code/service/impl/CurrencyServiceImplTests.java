@@ -0,0 +1,61 @@
+package com.mauriexchange.code.service.impl;
+
+import com.mauriexchange.code.config.DataSourceConfig;
+import com.mauriexchange.code.config.PaginationConfig;
+import com.mauriexchange.code.dto.AlignedHistoryDto;
+import com.mauriexchange.code.store.RatesSnapshotStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyServiceImplTests {
+
+    @TempDir
+    Path tempDir;
+
+    private static String currency(long id, String code, String... dayValuePairs) {
+        StringBuilder rates = new StringBuilder();
+        for (int i = 0; i < dayValuePairs.length; i += 2) {
+            if (rates.length() > 0) rates.append(',');
+            rates.append("{\"id\":").append(id * 100 + i).append(",\"attributes\":{\"day\":\"")
+                    .append(dayValuePairs[i]).append("\",\"value\":\"").append(dayValuePairs[i + 1]).append("\"}}");
+        }
+        return "{\"id\":" + id + ",\"attributes\":{\"code\":\"" + code + "\",\"money_today_changes\":{\"data\":["
+                + rates + "]}}}";
+    }
+
+    private CurrencyServiceImpl newService(String... currencies) throws IOException {
+        Path source = tempDir.resolve("rates.json");
+        Files.writeString(source, "{\"data\":[" + String.join(",", currencies) + "],\"meta\":{}}");
+        DataSourceConfig config = new DataSourceConfig();
+        config.setPath(source.toString());
+        RatesSnapshotStore store = new RatesSnapshotStore(config, event -> { });
+        store.init();
+        return new CurrencyServiceImpl(new PaginationConfig(), store);
+    }
+
+    @Test
+    void alignedHistoryAxisIsLongerThanAnySeries() throws IOException {
+        CurrencyServiceImpl service = newService(
+                currency(1, "USD", "2025-01-01", "39.1", "2025-01-03", "39.3", "2025-01-03", "99", "2025-01-05", "39.5"),
+                currency(2, "EUR", "2024-12-31", "42.0", "2025-01-02", "42.2", "2025-01-03", "42.3", "2025-01-05", "n/a"),
+                currency(3, "CNY", "2025-01-04", "5.4", "2025-01-06", "5.5"));
+
+        AlignedHistoryDto aligned = service.getAlignedHistoryByCodesAndRange(
+                List.of("USD", "EUR", "CNY"), "2025-01-01", "2025-01-06");
+
+        assertEquals(List.of("2025-01-01", "2025-01-02", "2025-01-03", "2025-01-04", "2025-01-05", "2025-01-06"),
+                aligned.getDates());
+        assertEquals(List.of("USD", "EUR", "CNY"), List.copyOf(aligned.getRates().keySet()));
+        // Same-day duplicates keep the first row; an unparseable value is a gap
+        assertArrayEquals(new Double[]{39.1, null, 39.3, null, 39.5, null}, aligned.getRates().get("USD"));
+        assertArrayEquals(new Double[]{null, 42.2, 42.3, null, null, null}, aligned.getRates().get("EUR"));
+        assertArrayEquals(new Double[]{null, null, null, 5.4, null, 5.5}, aligned.getRates().get("CNY"));
+    }
+}
@@ -0,0 +1,186 @@
+package com.mauriexchange.code.store;
+
+import com.mauriexchange.code.config.DataSourceConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinarySnapshotFileTests {
+
+    private static final String DATASET = "{\"data\":["
+            + "{\"id\":1,\"attributes\":{\"name_fr\":\"Dollar américain\",\"name_ar\":\"الدولار الأمريكي\",\"unity\":1,"
+            + "\"code\":\"USD\",\"createdAt\":\"2024-01-01T08:00:00.000\",\"money_today_changes\":{\"data\":["
+            + "{\"id\":11,\"attributes\":{\"day\":\"2025-01-03\",\"value\":\"39.7000\",\"end_date\":\"2025-01-04\","
+            + "\"createdAt\":\"2025-01-03T10:15:30.123\",\"publishedAt\":\"2025-01-03T11:00:00.000\"}},"
+            + "{\"id\":10,\"attributes\":{\"day\":\"2025-01-02\",\"value\":\"39.5\"}}]}}},"
+            + "{\"id\":2,\"attributes\":{\"name_fr\":\"Sans cours\",\"code\":\"XXX\",\"money_today_changes\":{\"data\":[]}}},"
+            + "{\"attributes\":{\"code\":\"EUR\",\"money_today_changes\":{\"data\":["
+            + "{\"id\":20,\"attributes\":{\"day\":\"2025-01-02\",\"value\":\"n/a\"}}]}}}"
+            + "],\"meta\":{}}";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void mappedSnapshotMatchesParsedSource() throws IOException {
+        Path source = tempDir.resolve("rates.json");
+        Path binary = tempDir.resolve("rates.json.snapshot");
+        Files.writeString(source, DATASET);
+
+        RatesSnapshot parsed = new JsonSnapshotLoader(true).load(source, 1);
+        BinarySnapshotFile.write(parsed, binary);
+        assertEquals(SourceStamp.of(source), BinarySnapshotFile.readSourceStamp(binary));
+
+        RatesSnapshot mapped = BinarySnapshotFile.map(binary, 1, true);
+        assertEquals(parsed.getSourceStamp(), mapped.getSourceStamp());
+        assertEquals(parsed.getRecordCount(), mapped.getRecordCount());
+        assertEquals(parsed.currencies().size(), mapped.currencies().size());
+        for (int c = 0; c < parsed.currencies().size(); c++) {
+            CurrencyEntry expected = parsed.currencies().get(c);
+            CurrencyEntry actual = mapped.currencies().get(c);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getCode(), actual.getCode());
+            assertEquals(expected.getNameFr(), actual.getNameFr());
+            assertEquals(expected.getNameAr(), actual.getNameAr());
+            assertEquals(expected.getUnity(), actual.getUnity());
+            assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+            assertEquals(expected.getPublishedAt(), actual.getPublishedAt());
+
+            RateSeries series = expected.getSeries();
+            assertEquals(series.size(), actual.getSeries().size());
+            for (int i = 0; i < series.size(); i++) {
+                assertEquals(series.dayAt(i), actual.getSeries().dayAt(i));
+                assertEquals(series.valueAt(i), actual.getSeries().valueAt(i));
+                assertEquals(expected.getDetails().idAt(i), actual.getDetails().idAt(i));
+                assertEquals(expected.getDetails().valueTextAt(i), actual.getDetails().valueTextAt(i));
+                assertEquals(expected.getDetails().endDateAt(i), actual.getDetails().endDateAt(i));
+                assertEquals(expected.getDetails().createdAt(i), actual.getDetails().createdAt(i));
+                assertEquals(expected.getDetails().publishedAt(i), actual.getDetails().publishedAt(i));
+            }
+        }
+        assertEquals("39.7000", mapped.findByCode("usd").orElseThrow().getDetails().valueTextAt(1));
+        assertTrue(Double.isNaN(mapped.findByCode("EUR").orElseThrow().getSeries().valueAt(0)));
+        assertEquals(parsed.latestRates().size(), mapped.latestRates().size());
+    }
+
+    @Test
+    void verbatimValuesAndUndatedRowsSurviveTheBinarySnapshot() throws IOException {
+        Path source = tempDir.resolve("rates.json");
+        Path binary = tempDir.resolve("rates.json.snapshot");
+        Files.writeString(source, DATASET.replace("\"39.5\"", "\"+39.5\"").replace("\"2025-01-02\",\"value\":\"n/a\"",
+                "\"2025-02-30\",\"value\":\".5\",\"createdAt\":\"2025-01-03T10:15:30.123\""));
+
+        BinarySnapshotFile.write(new JsonSnapshotLoader(true).load(source, 1), binary);
+        for (boolean audit : new boolean[]{true, false}) {
+            RatesSnapshot mapped = BinarySnapshotFile.map(binary, 1, audit);
+            assertEquals("+39.5", mapped.findByCode("USD").orElseThrow().getDetails().valueTextAt(0));
+            CurrencyEntry eur = mapped.findByCode("EUR").orElseThrow();
+            assertTrue(eur.getSeries().isEmpty());
+            assertEquals(List.of("2025-02-30"), eur.getUndated().dayTexts());
+            assertEquals(20L, eur.getUndated().details().idAt(0));
+            assertEquals(".5", eur.getUndated().details().valueTextAt(0));
+            assertEquals(audit ? LocalDateTime.parse("2025-01-03T10:15:30.123") : null,
+                    eur.getUndated().details().createdAt(0));
+        }
+    }
+
+    @Test
+    void mappingCostDoesNotGrowWithHistoryDepth() throws IOException {
+        for (int rows : new int[]{1_000, 100_000}) {
+            RatesSnapshot built = snapshotWithRows(rows);
+            Path binary = tempDir.resolve("rates-" + rows + ".snapshot");
+            BinarySnapshotFile.write(built, binary);
+
+            // Only the directory and the last rows are read: no rollup aggregates the history up front
+            RatesSnapshot mapped = BinarySnapshotFile.map(binary, 1, false);
+            assertEquals(0, mapped.builtRollupCount());
+            assertEquals(built.latestRates().getLatestDate(), mapped.latestRates().getLatestDate());
+
+            // Columns written across many chunks read back row for row
+            CurrencyEntry expected = built.currencies().get(3);
+            CurrencyEntry actual = mapped.currencies().get(3);
+            for (int i : new int[]{0, rows / 2, rows - 1}) {
+                assertEquals(expected.getSeries().dayAt(i), actual.getSeries().dayAt(i));
+                assertEquals(expected.getSeries().valueAt(i), actual.getSeries().valueAt(i));
+                assertEquals(expected.getDetails().idAt(i), actual.getDetails().idAt(i));
+                assertEquals(expected.getDetails().valueTextAt(i), actual.getDetails().valueTextAt(i));
+            }
+
+            RateRollup monthly = mapped.rollup(actual, RollupInterval.MONTH);
+            RateRollup reference = RateRollup.of(expected.getSeries(), RollupInterval.MONTH);
+            assertEquals(1, mapped.builtRollupCount());
+            assertEquals(reference.size(), monthly.size());
+            assertEquals(reference.closeAt(reference.size() - 1), monthly.closeAt(monthly.size() - 1));
+            assertSame(monthly, mapped.rollup(actual, RollupInterval.MONTH));
+        }
+    }
+
+    @Test
+    void storeMapsBinarySnapshotOnlyWhenBuiltFromCurrentSource() throws IOException {
+        Path source = tempDir.resolve("rates.json");
+        Files.writeString(source, DATASET);
+        DataSourceConfig config = new DataSourceConfig();
+        config.setPath(source.toString());
+        Path binary = Path.of(config.resolveBinarySnapshotPath());
+
+        new RatesSnapshotStore(config, event -> { }).init();
+        assertTrue(Files.exists(binary), "a JSON load writes the binary snapshot");
+
+        // Served from the binary alone once the JSON is gone
+        Files.delete(source);
+        RatesSnapshotStore fromBinary = new RatesSnapshotStore(config, event -> { });
+        fromBinary.init();
+        assertEquals(3, fromBinary.current().currencies().size());
+
+        // A newer publication of the source wins over the stale binary
+        Files.writeString(source, DATASET.replace("39.7000", "40.125"));
+        RatesSnapshotStore fromSource = new RatesSnapshotStore(config, event -> { });
+        fromSource.init();
+        assertEquals("40.125", fromSource.current().findByCode("USD").orElseThrow().getDetails().valueTextAt(1));
+        assertEquals(SourceStamp.of(source), BinarySnapshotFile.readSourceStamp(binary));
+    }
+
+    @Test
+    void corruptBinarySnapshotFallsBackToSource() throws IOException {
+        Path source = tempDir.resolve("rates.json");
+        Files.writeString(source, DATASET);
+        DataSourceConfig config = new DataSourceConfig();
+        config.setPath(source.toString());
+        Files.write(Path.of(config.resolveBinarySnapshotPath()), new byte[]{'M', 'X', 'R', 'S', 9});
+
+        RatesSnapshotStore store = new RatesSnapshotStore(config, new ArrayList<>()::add);
+        store.init();
+        assertEquals(3, store.current().currencies().size());
+        assertEquals(SourceStamp.of(source), BinarySnapshotFile.readSourceStamp(Path.of(config.resolveBinarySnapshotPath())));
+    }
+
+    private static RatesSnapshot snapshotWithRows(int rows) {
+        List<CurrencyEntry> currencies = new ArrayList<>();
+        for (int c = 0; c < 4; c++) {
+            RateColumnsBuilder builder = new RateColumnsBuilder(false, rows);
+            for (int i = 0; i < rows; i++) {
+                builder.beginRow();
+                builder.id((long) c * rows + i);
+                builder.value(String.format(Locale.ROOT, "%d.%04d", 30 + c, i % 10_000));
+                builder.commitRow(i);
+            }
+            RateColumnsBuilder.Columns columns = builder.build();
+            currencies.add(CurrencyEntry.builder()
+                    .id((long) c)
+                    .code("C" + c)
+                    .series(columns.series())
+                    .details(columns.details())
+                    .build());
+        }
+        return RatesSnapshot.of(currencies, 1, new SourceStamp(0, 0), System.nanoTime());
+    }
+}
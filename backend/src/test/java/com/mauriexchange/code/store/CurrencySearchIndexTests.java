@@ -0,0 +1,54 @@
+package com.mauriexchange.code.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencySearchIndexTests {
+
+    private static final List<CurrencyEntry> CURRENCIES = List.of(
+            currency("USD", "Dollar américain", "الدولار الأمريكي"),
+            currency("AED", "Dirham des Émirats", "الدرهم الإماراتي"),
+            currency("CAD", "Dollar canadien", "الدولار الكندي"),
+            currency("NOK", "Couronne norvégienne", "الكرونة النرويجية"),
+            currency("MAD", "Dirham marocain", "الدرهم المغربي"));
+
+    private static CurrencyEntry currency(String code, String nameFr, String nameAr) {
+        return CurrencyEntry.builder().code(code).nameFr(nameFr).nameAr(nameAr).build();
+    }
+
+    private final CurrencySearchIndex index = new CurrencySearchIndex(CURRENCIES);
+
+    @Test
+    void foldsAccentsCaseAndArabicVariants() {
+        assertEquals("dirham des emirats", CurrencySearchIndex.fold("Dirham  des-Émirats"));
+        assertEquals(CurrencySearchIndex.fold("الإماراتي"), CurrencySearchIndex.fold("الاماراتي"));
+        assertEquals(CurrencySearchIndex.fold("الكرونة"), CurrencySearchIndex.fold("الكرونه"));
+        assertEquals(CurrencySearchIndex.fold("دُولار"), CurrencySearchIndex.fold("دولار"));
+    }
+
+    @Test
+    void searchMatchesInsideFoldedNames() {
+        assertArrayEquals(new int[]{1}, index.search("EMIRATS"));
+        assertArrayEquals(new int[]{3}, index.search("norvegienne"));
+        assertArrayEquals(new int[]{1}, index.search("الاماراتي"));
+        assertArrayEquals(new int[]{0, 2}, index.search("dollar"));
+    }
+
+    @Test
+    void suggestRanksCodesBeforeNamesAndWords() {
+        // "mad" is MAD's code, and a word start nowhere else
+        assertArrayEquals(new int[]{4}, index.suggest("mad", 10));
+        // Code prefix first, then inner words ("américain")
+        assertArrayEquals(new int[]{1, 0}, index.suggest("a", 10));
+        assertArrayEquals(new int[]{0, 2}, index.suggest("doll", 10));
+        assertArrayEquals(new int[]{0}, index.suggest("dollar am", 10));
+        // Inner word and Arabic word without its article
+        assertArrayEquals(new int[]{4}, index.suggest("maro", 10));
+        assertArrayEquals(new int[]{1, 4}, index.suggest("درهم", 10));
+        assertArrayEquals(new int[]{0}, index.suggest("dollar am", 1));
+        assertEquals(0, index.suggest("  ", 10).length);
+    }
+}
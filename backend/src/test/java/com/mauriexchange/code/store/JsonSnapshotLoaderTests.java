@@ -0,0 +1,126 @@
+package com.mauriexchange.code.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonSnapshotLoaderTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void valueTextsAreKeptAsPublished() throws IOException {
+        List<String> texts = List.of("39.8000", "-0.5", "0", "+39.8", ".5", "-0", "0039.8", "39.", "1e3", "39,8",
+                "99999999999999999999.5", "", "n/a");
+        StringBuilder rates = new StringBuilder();
+        for (int i = 0; i < texts.size(); i++) {
+            rates.append(i > 0 ? "," : "").append(rate(i, "2025-01-" + (10 + i), "\"" + texts.get(i) + "\""));
+        }
+        CurrencyEntry usd = load(currency("USD", rates.toString())).get(0);
+
+        RateSeries series = usd.getSeries();
+        for (int i = 0; i < texts.size(); i++) {
+            assertEquals(texts.get(i), usd.getDetails().valueTextAt(i));
+        }
+        assertEquals(39.8, series.valueAt(3));
+        assertEquals(0.5, series.valueAt(4));
+        assertEquals(1000.0, series.valueAt(8));
+        assertTrue(Double.isNaN(series.valueAt(9)));
+        assertEquals(1e20, series.valueAt(10), 1e5);
+        assertTrue(Double.isNaN(series.valueAt(12)));
+    }
+
+    @Test
+    void missingValueHasNoText() throws IOException {
+        CurrencyEntry usd = load(currency("USD", rate(1, "2025-01-02", "null") + ","
+                + "{\"id\":2,\"attributes\":{\"day\":\"2025-01-03\"}}")).get(0);
+
+        assertNull(usd.getDetails().valueTextAt(0));
+        assertNull(usd.getDetails().valueTextAt(1));
+        assertTrue(Double.isNaN(usd.getSeries().valueAt(0)));
+    }
+
+    @Test
+    void rowsWithoutUsableDayAreKeptApart() throws IOException {
+        CurrencyEntry usd = load(currency("USD", String.join(",",
+                rate(1, "2025-01-02", "\"39.5\""),
+                rate(2, "2025-13-45", "\"39.6\""),
+                "{\"id\":3,\"attributes\":{\"value\":\"39.7\"}}",
+                "{\"id\":4,\"attributes\":{\"day\":null,\"value\":\"+39.8\"}}",
+                "{\"id\":5,\"attributes\":{\"day\":20250105,\"value\":\"39.9\"}}"))).get(0);
+
+        assertEquals(1, usd.getSeries().size());
+        UndatedRates undated = usd.getUndated();
+        assertEquals(Arrays.asList("2025-13-45", null, null, "20250105"), undated.dayTexts());
+        assertEquals(2L, undated.details().idAt(0));
+        assertEquals("39.6", undated.details().valueTextAt(0));
+        assertEquals(3L, undated.details().idAt(1));
+        assertEquals("+39.8", undated.details().valueTextAt(2));
+        assertEquals(5L, undated.details().idAt(3));
+    }
+
+    @Test
+    void unknownFieldsAreSkipped() throws IOException {
+        String json = "{\"meta\":{\"pagination\":[1,2,{\"x\":null}]},\"data\":["
+                + "{\"id\":7,\"extra\":[{\"a\":1}],\"attributes\":{\"code\":\"EUR\",\"flag\":{\"emoji\":\"x\"},"
+                + "\"tags\":[\"a\",[\"b\"]],\"money_today_changes\":{\"meta\":{},\"data\":["
+                + "{\"id\":1,\"links\":{\"self\":\"/1\"},\"attributes\":{\"day\":\"2025-01-02\",\"note\":[1,{\"k\":2}],"
+                + "\"value\":\"44.1\",\"source\":{\"name\":\"BCM\"}}}]}}},"
+                + "\"not a currency\","
+                + "{\"attributes\":{\"code\":\"USD\",\"money_today_changes\":{\"data\":[" + rate(2, "2025-01-02", "\"39.5\"")
+                + "]}}}],\"trailer\":true}";
+
+        List<CurrencyEntry> currencies = load(json);
+        assertEquals(2, currencies.size());
+        CurrencyEntry eur = currencies.get(0);
+        assertEquals(7L, eur.getId());
+        assertEquals("EUR", eur.getCode());
+        assertEquals(44.1, eur.getSeries().valueAt(0));
+        assertEquals("44.1", eur.getDetails().valueTextAt(0));
+        assertEquals("USD", currencies.get(1).getCode());
+    }
+
+    @Test
+    void rowsAreSortedByDayKeepingSourceOrderWithinADay() throws IOException {
+        CurrencyEntry usd = load(currency("USD", String.join(",",
+                rate(1, "2025-01-05", "\"5\""),
+                rate(2, "2025-01-03", "\"+3\""),
+                rate(3, "bad", "\"0\""),
+                rate(4, "2025-01-05", "\"5.1\""),
+                rate(5, "2025-01-01", "\"1\"")))).get(0);
+
+        RateSeries series = usd.getSeries();
+        assertEquals(4, series.size());
+        assertArrayEquals(new int[]{EpochDays.parse("2025-01-01"), EpochDays.parse("2025-01-03"),
+                EpochDays.parse("2025-01-05"), EpochDays.parse("2025-01-05")}, series.copyDays(0, 4));
+        assertEquals(List.of(5L, 2L, 1L, 4L), List.of(usd.getDetails().idAt(0), usd.getDetails().idAt(1),
+                usd.getDetails().idAt(2), usd.getDetails().idAt(3)));
+        // Verbatim texts follow their rows through the sort
+        assertEquals("+3", usd.getDetails().valueTextAt(1));
+        assertEquals("5.1", usd.getDetails().valueTextAt(3));
+        assertEquals(3L, usd.getUndated().details().idAt(0));
+    }
+
+    private List<CurrencyEntry> load(String json) throws IOException {
+        Path source = tempDir.resolve("rates.json");
+        Files.writeString(source, json);
+        return new JsonSnapshotLoader(false).readCurrencies(source);
+    }
+
+    private static String currency(String code, String rates) {
+        return "{\"data\":[{\"id\":1,\"attributes\":{\"code\":\"" + code + "\",\"money_today_changes\":{\"data\":["
+                + rates + "]}}}]}";
+    }
+
+    private static String rate(long id, String day, String value) {
+        return "{\"id\":" + id + ",\"attributes\":{\"day\":\"" + day + "\",\"value\":" + value + "}}";
+    }
+}
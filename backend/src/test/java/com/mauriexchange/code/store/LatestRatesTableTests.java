@@ -0,0 +1,36 @@
+package com.mauriexchange.code.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatestRatesTableTests {
+
+    @Test
+    void duplicatedDaysAreReadFromTheirFirstRow() {
+        RateSeries series = new RateSeries(new int[]{10, 11, 11, 12, 12}, new double[]{1, 2, 3, 4, 5});
+        LatestRatesTable table = new LatestRatesTable(List.of(CurrencyEntry.builder().code("USD").series(series).build()));
+
+        assertEquals(4, table.latestValueAt(0));
+        assertEquals(2, table.previousValueAt(0));
+        assertEquals(series.valueAt(series.indexOf(12)), table.latestValueAt(0));
+        assertEquals(3, series.floorValidIndex(12));
+        assertEquals(1, series.floorValidIndex(11));
+
+        RateSeries withGap = new RateSeries(new int[]{10, 11, 11}, new double[]{1, Double.NaN, 3});
+        assertEquals(2, withGap.floorValidIndex(11));
+    }
+
+    @Test
+    void unusableLatestRateIsNotReplacedByAnOlderOne() {
+        RateSeries series = new RateSeries(new int[]{10, 11}, new double[]{40, Double.NaN});
+        CrossRateTable crossRates = new CrossRateTable(List.of(
+                CurrencyEntry.builder().code("USD").series(series).build(),
+                CurrencyEntry.builder().code("EUR").series(new RateSeries(new int[]{11}, new double[]{44})).build()));
+
+        assertEquals(-1, crossRates.indexOf("USD"));
+        assertEquals(44, crossRates.rate(crossRates.indexOf("EUR"), crossRates.indexOf("MRU")));
+    }
+}
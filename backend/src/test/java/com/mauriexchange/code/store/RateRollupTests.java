@@ -0,0 +1,44 @@
+package com.mauriexchange.code.store;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateRollupTests {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void dayPublishedTwiceCountsOnceFromItsFirstRow() {
+        int jan2 = EpochDays.parse("2025-01-02");
+        int jan3 = EpochDays.parse("2025-01-03");
+        int feb3 = EpochDays.parse("2025-02-03");
+        // January 3 is published twice; February 3's first row has no value
+        RateSeries series = new RateSeries(new int[]{jan2, jan3, jan3, feb3, feb3},
+                new double[]{10, 20, 90, Double.NaN, 30});
+        RateRollup monthly = RateRollup.of(series, RollupInterval.MONTH);
+
+        assertEquals(1, monthly.size());
+        assertEquals(2, monthly.countAt(0));
+        assertEquals(10, monthly.openAt(0), EPSILON);
+        assertEquals(20, monthly.highAt(0), EPSILON);
+        assertEquals(20, monthly.closeAt(0), EPSILON);
+        assertEquals(15, monthly.averageAt(0), EPSILON);
+    }
+
+    @Test
+    void appendedRowRepeatingTheLastDayIsIgnored() {
+        int jan2 = EpochDays.parse("2025-01-02");
+        int jan3 = EpochDays.parse("2025-01-03");
+        RateRollup before = RateRollup.of(new RateSeries(new int[]{jan2, jan3}, new double[]{10, 20}), RollupInterval.YEAR);
+
+        RateSeries appended = new RateSeries(new int[]{jan2, jan3, jan3, EpochDays.parse("2025-01-06")},
+                new double[]{10, 20, 90, 30});
+        RateRollup extended = before.extend(appended, 2, RollupInterval.YEAR);
+
+        assertEquals(3, extended.countAt(0));
+        assertEquals(30, extended.highAt(0), EPSILON);
+        assertEquals(20, extended.averageAt(0), EPSILON);
+        assertEquals(2, before.countAt(0));
+    }
+}
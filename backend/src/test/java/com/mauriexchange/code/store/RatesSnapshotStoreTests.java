@@ -0,0 +1,126 @@
+package com.mauriexchange.code.store;
+
+import com.mauriexchange.code.config.DataSourceConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatesSnapshotStoreTests {
+
+    @TempDir
+    Path tempDir;
+
+    private static String dataset(String code, String... dayValuePairs) {
+        StringBuilder rates = new StringBuilder();
+        for (int i = 0; i < dayValuePairs.length; i += 2) {
+            if (rates.length() > 0) rates.append(',');
+            rates.append("{\"id\":").append(i + 1).append(",\"attributes\":{\"day\":\"")
+                    .append(dayValuePairs[i]).append("\",\"value\":\"").append(dayValuePairs[i + 1]).append("\"}}");
+        }
+        return "{\"data\":[{\"id\":1,\"attributes\":{\"name_fr\":\"Test\",\"name_ar\":\"Test\",\"unity\":1,"
+                + "\"code\":\"" + code + "\",\"money_today_changes\":{\"data\":[" + rates + "]}}}],\"meta\":{}}";
+    }
+
+    private RatesSnapshotStore newStore(Path source, List<Object> events) {
+        DataSourceConfig config = new DataSourceConfig();
+        config.setPath(source.toString());
+        RatesSnapshotStore store = new RatesSnapshotStore(config, events::add);
+        store.init();
+        return store;
+    }
+
+    @Test
+    void reloadPublishesNewSnapshotWhenSourceChanges() throws IOException {
+        Path source = tempDir.resolve("rates.json");
+        Files.writeString(source, dataset("USD", "2025-01-02", "39.5"));
+        List<Object> events = new ArrayList<>();
+        RatesSnapshotStore store = newStore(source, events);
+
+        RatesSnapshot first = store.current();
+        assertEquals(1, first.getVersion());
+        assertFalse(store.reloadIfChanged(), "unchanged source must not reload");
+
+        Files.writeString(source, dataset("USD", "2025-01-02", "39.5", "2025-01-03", "39.7"));
+        assertTrue(store.reloadIfChanged());
+
+        RatesSnapshot second = store.current();
+        assertEquals(2, second.getVersion());
+        assertEquals(2, second.findByCode("usd").orElseThrow().getSeries().size());
+        assertEquals(1, first.findByCode("usd").orElseThrow().getSeries().size(), "old snapshot stays intact");
+        assertEquals(2, events.size());
+        assertSame(first, ((SnapshotPublishedEvent) events.get(1)).previous());
+    }
+
+    @Test
+    void failedReloadKeepsServingPreviousSnapshot() throws IOException {
+        Path source = tempDir.resolve("rates.json");
+        Files.writeString(source, dataset("EUR", "2025-01-02", "43.1"));
+        RatesSnapshotStore store = newStore(source, new ArrayList<>());
+
+        Files.writeString(source, "{\"data\":[{\"id\":1,");
+        assertFalse(store.reloadIfChanged());
+        assertEquals(1, store.current().getVersion());
+        assertTrue(store.current().findByCode("EUR").isPresent());
+        assertNotNull(store.getLastFailure());
+    }
+
+    @Test
+    void deltaAppendsNewRowsWithoutTouchingServedSnapshots() throws IOException {
+        Path source = tempDir.resolve("rates.json");
+        Files.writeString(source, dataset("USD", "2025-01-02", "39.5", "2025-01-03", "39.7"));
+        List<Object> events = new ArrayList<>();
+        RatesSnapshotStore store = newStore(source, events);
+        RatesSnapshot first = store.current();
+
+        Path delta = tempDir.resolve("rates.json.delta.json");
+        Files.writeString(delta, dataset("USD", "2025-01-03", "39.7", "2025-01-06", "39.9"));
+        assertTrue(store.applyDeltaIfChanged());
+        assertFalse(store.applyDeltaIfChanged(), "an unchanged delta must not be applied twice");
+
+        RatesSnapshot second = store.current();
+        RateSeries usd = second.findByCode("USD").orElseThrow().getSeries();
+        assertEquals(2, second.getVersion());
+        assertEquals(3, usd.size(), "the already published day is skipped");
+        assertEquals(39.9, usd.valueAt(2));
+        assertEquals(2, first.findByCode("USD").orElseThrow().getSeries().size(), "old snapshot stays intact");
+
+        // Next day's delta extends the same segment; a delta derived from v1 must not see it
+        Files.writeString(delta, dataset("USD", "2025-01-07", "40.0") + " ");
+        assertTrue(store.applyDeltaIfChanged());
+        SnapshotDelta.Result sibling = SnapshotDelta.apply(second,
+                new JsonSnapshotLoader(true).readCurrencies(tempDir.resolve("rates.json.delta.json")), 9, System.nanoTime());
+        assertEquals(4, store.current().findByCode("USD").orElseThrow().getSeries().size());
+        RateSeries siblingUsd = sibling.snapshot().findByCode("USD").orElseThrow().getSeries();
+        assertEquals(4, siblingUsd.size());
+        assertEquals(40.0, siblingUsd.valueAt(3));
+        assertEquals(3, second.findByCode("USD").orElseThrow().getSeries().size());
+
+        // Rollups extended from the previous snapshot match a rollup of the whole series
+        RatesSnapshot third = store.current();
+        CurrencyEntry entry = third.findByCode("USD").orElseThrow();
+        for (RollupInterval interval : RollupInterval.values()) {
+            RateRollup extended = third.rollup(entry, interval);
+            RateRollup full = RateRollup.of(entry.getSeries(), interval);
+            assertEquals(full.size(), extended.size());
+            for (int i = 0; i < full.size(); i++) {
+                assertEquals(full.startDayAt(i), extended.startDayAt(i));
+                assertEquals(full.closeAt(i), extended.closeAt(i));
+                assertEquals(full.averageAt(i), extended.averageAt(i), 1e-12);
+                assertEquals(full.countAt(i), extended.countAt(i));
+            }
+        }
+
+        // A full reload supersedes the delta, which is then re-applied on top
+        Files.writeString(source, dataset("USD", "2025-01-02", "39.5"));
+        assertTrue(store.reloadIfChanged());
+        assertTrue(store.applyDeltaIfChanged());
+        assertEquals(2, store.current().findByCode("USD").orElseThrow().getSeries().size());
+    }
+}
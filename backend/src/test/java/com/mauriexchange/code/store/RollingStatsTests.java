@@ -0,0 +1,103 @@
+package com.mauriexchange.code.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingStatsTests {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void matchesStatisticsComputedWindowByWindow() {
+        Random random = new Random(42);
+        int n = 400;
+        int[] days = new int[n];
+        double[] values = new double[n];
+        double level = 38;
+        for (int i = 0; i < n; i++) {
+            days[i] = 19000 + i * 2;
+            level *= 1 + (random.nextDouble() - 0.5) / 50;
+            values[i] = i % 37 == 5 ? Double.NaN : level;
+        }
+        RateSeries series = new RateSeries(days, values);
+        int window = 10;
+        int from = 100;
+        int to = 300;
+        RollingStats stats = RollingStats.compute(series, from, to, window);
+
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (!Double.isNaN(values[i])) {
+                valid.add(i);
+            }
+        }
+        double peak = Double.NEGATIVE_INFINITY;
+        double deepest = 0;
+        int row = 0;
+        for (int v = 0; v < valid.size(); v++) {
+            int i = valid.get(v);
+            if (i < from || i >= to) {
+                continue;
+            }
+            assertEquals(days[i], stats.dayAt(row));
+            double sum = 0;
+            for (int w = v - window + 1; w <= v; w++) {
+                sum += values[valid.get(w)];
+            }
+            double mean = sum / window;
+            double squares = 0;
+            for (int w = v - window + 1; w <= v; w++) {
+                squares += (values[valid.get(w)] - mean) * (values[valid.get(w)] - mean);
+            }
+            assertEquals(mean, stats.smaAt(row), EPSILON);
+            assertEquals(Math.sqrt(squares / (window - 1)), stats.stddevAt(row), EPSILON);
+            assertEquals(values[i] / values[valid.get(v - 1)] - 1, stats.returnAt(row), EPSILON);
+            peak = Math.max(peak, values[i]);
+            assertEquals(values[i] / peak - 1, stats.drawdownAt(row), EPSILON);
+            deepest = Math.min(deepest, values[i] / peak - 1);
+            row++;
+        }
+        assertEquals(row, stats.size());
+        assertEquals(deepest, stats.maxDrawdown(), EPSILON);
+    }
+
+    @Test
+    void windowIsNotFullAtTheStartOfTheSeries() {
+        RateSeries series = new RateSeries(new int[]{1, 2, 3, 4}, new double[]{10, 20, 30, 15});
+        RollingStats stats = RollingStats.compute(series, 0, 4, 3);
+
+        assertTrue(Double.isNaN(stats.smaAt(1)));
+        assertTrue(Double.isNaN(stats.returnAt(0)));
+        assertEquals(20, stats.smaAt(2), EPSILON);
+        assertEquals(10, stats.stddevAt(2), EPSILON);
+        assertEquals(15, stats.emaAt(1), EPSILON);
+        assertEquals(-0.5, stats.maxDrawdown(), EPSILON);
+        assertEquals(3, stats.peakDay());
+        assertEquals(4, stats.troughDay());
+        assertEquals(18.75, stats.mean(), EPSILON);
+        assertEquals(0, RollingStats.compute(series, 2, 1, 3).size());
+    }
+
+    @Test
+    void dayPublishedTwiceCountsOnceFromItsFirstRow() {
+        // Days 2 and 4 are published twice; day 5's first row has no value
+        RateSeries series = new RateSeries(new int[]{1, 2, 2, 3, 4, 4, 5, 5, 6},
+                new double[]{10, 20, 99, 30, 40, 1, Double.NaN, 70, 60});
+        RollingStats stats = RollingStats.compute(series, 3, 9, 3);
+
+        assertEquals(3, stats.size());
+        assertArrayEquals(new int[]{3, 4, 6}, new int[]{stats.dayAt(0), stats.dayAt(1), stats.dayAt(2)});
+        // The window warms up on days 1 and 2, read from their first rows
+        assertEquals(20, stats.smaAt(0), EPSILON);
+        assertEquals(0.5, stats.returnAt(0), EPSILON);
+        assertEquals(30, stats.smaAt(1), EPSILON);
+        assertEquals(60.0 / 40 - 1, stats.returnAt(2), EPSILON);
+        assertEquals(60, stats.max(), EPSILON);
+        assertEquals(130.0 / 3, stats.mean(), EPSILON);
+    }
+}